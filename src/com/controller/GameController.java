@@ -1,15 +1,19 @@
 package com.controller;
 
 import java.awt.Dimension;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Paths;
 
+import com.model.GameRandom;
 import com.model.Model;
 import com.model.entity.GameCharacter;
 import com.model.entity.npc.Enemy;
+import com.model.entity.pc.Attribute;
 import com.model.entity.pc.Player;
 import com.model.entity.pc.PlayerClass;
 import com.model.layout.Direction;
 import com.model.layout.FloorLayout;
+import com.model.layout.FloorPrefetcher;
 import com.view.GUI;
 import com.view.images.MiscImage;
 
@@ -18,11 +22,20 @@ import com.view.images.MiscImage;
  * activating the other controllers to construct and play the game itself. Also
  * contains the main method.
  *
+ * Every command given to the game passes through this controller, and can be
+ * recorded in an InputJournal, so that the game can be replayed exactly from
+ * its seed. Commands, and ending the game, are synchronized on the
+ * controller, so a game ended from another thread, such as on exit, is never
+ * caught part way through a turn.
+ *
  * @author Christopher
  *
  */
 public class GameController {
 
+	// Prefix of the journal command for travelling to a room.
+	private static final String TRAVEL = "Travel ";
+
 	// The game model used
 	private Model model;
 
@@ -33,6 +46,10 @@ public class GameController {
 	private Player player;
 	// The layout of the current floor.
 	private FloorLayout layout;
+	// Builds the next floor while the current one is explored.
+	private FloorPrefetcher prefetcher;
+	// Records every command given, or null if commands are not recorded.
+	private InputJournal journal;
 
 	/**
 	 * Constructs a new GameController, generating the necessary listeners and
@@ -49,7 +66,7 @@ public class GameController {
 	 * Starts a new game, creating a fresh player entity and dungeon, and
 	 * setting all stats to their base value.
 	 */
-	public void startNewGame() {
+	public synchronized void startNewGame() {
 		model.showCharacterSelection();
 		state = GameState.SELECTING_CLASS;
 	}
@@ -61,15 +78,19 @@ public class GameController {
 	 *
 	 * @param buttonLabel label of the pressed button.
 	 */
-	public void acceptButtonPress(String buttonLabel) {
+	public synchronized void acceptButtonPress(String buttonLabel) {
+		if (journal != null)
+			journal.record(buttonLabel);
 		switch (state) {
 		case SELECTING_CLASS:
 			setPlayerClass(buttonLabel);
 			break;
 		case EXPLORING:
 			// Handle searching the room.
-			if (buttonLabel == "Search")
+			if ("Search".equals(buttonLabel))
 				layout.getRoom().search();
+			else if ("Descend".equals(buttonLabel))
+				descend();
 			else
 				try {
 					Direction dir = Direction
@@ -85,17 +106,18 @@ public class GameController {
 				model.showMovementControls(); // An update may be needed.
 			break;
 		case COMBAT:
-			if (buttonLabel == "Flee") {
+			if ("Flee".equals(buttonLabel)) {
 				for (Enemy enemy : layout.getRoom().getEnemies())
 					enemy.attack(player);
 				model.showMovementControls();
 				state = GameState.EXPLORING;
 			}
-			// Get updated current list of enemies.
-			List<Enemy> currentEnemies = layout.getRoom().getEnemies();
+			// There may be nothing left to fight.
+			if (!layout.inCombat())
+				break;
 			// Interpret attack command.
-			// if (currentEnemies.size() == 1) // TODO: Specific targeting.
-			interpretAttack(buttonLabel, currentEnemies.get(0));
+			// TODO: Specific targeting.
+			interpretAttack(buttonLabel, layout.getRoom().getEnemies().get(0));
 			break;
 		default:
 		case INACTIVE:
@@ -104,6 +126,115 @@ public class GameController {
 		}
 	}
 
+	/**
+	 * Moves the player to the room at the given location by the shortest route
+	 * through discovered rooms, if the player is exploring and such a route
+	 * exists. The player stops early if enemies are encountered on the way.
+	 *
+	 * @param x x coordinate of the room to travel to.
+	 * @param y y coordinate of the room to travel to.
+	 * @return true if the player moved, otherwise false.
+	 */
+	public synchronized boolean travelTo(int x, int y) {
+		if (journal != null)
+			journal.record(TRAVEL + x + " " + y);
+		if (state != GameState.EXPLORING)
+			return false;
+		Direction[] path = layout.getPathFinder().findPath(
+				layout.getPlayerRoom(), layout.getRoomId(x, y));
+		if (path == null || layout.travel(path) == 0)
+			return false;
+		if (layout.inCombat()) {
+			state = GameState.COMBAT;
+			model.showCombatControls();
+		} else
+			model.showMovementControls();
+		return true;
+	}
+
+	/**
+	 * Carries out a command recorded in a journal, exactly as when it was
+	 * first given.
+	 *
+	 * @param command the command, as recorded.
+	 */
+	public synchronized void acceptCommand(String command) {
+		if (command.startsWith(TRAVEL)) {
+			String[] location = command.substring(TRAVEL.length()).split(" ");
+			travelTo(Integer.parseInt(location[0]),
+					Integer.parseInt(location[1]));
+		} else
+			acceptButtonPress(command);
+	}
+
+	// Recording.
+
+	/**
+	 * Sets the journal every command given from now on is recorded in.
+	 *
+	 * @param journal the journal, or null to stop recording.
+	 */
+	public synchronized void setJournal(InputJournal journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Ends the game, stopping any floor being built in the background, and
+	 * ending the journal with the game's final state.
+	 */
+	public synchronized void endGame() {
+		if (journal != null)
+			journal.close(getStateHash());
+		journal = null;
+		if (prefetcher != null)
+			prefetcher.shutdown();
+		state = GameState.INACTIVE;
+	}
+
+	/**
+	 * Computes a hash of the state of the game: the player's statistics, the
+	 * floor they are on and where, what they have discovered of it, and the
+	 * enemies around them. Two games given the same seed and commands will
+	 * always have the same hash.
+	 *
+	 * @return a hash of the game's state.
+	 */
+	public synchronized long getStateHash() {
+		long hash = mix(0, state.ordinal());
+		if (player != null) {
+			hash = mix(hash, player.getPlayerClass().ordinal());
+			hash = mix(hash, player.getLevel());
+			hash = mix(hash, player.getHP().hashCode());
+			hash = mix(hash, player.getMana().hashCode());
+			hash = mix(hash, player.getCurrentXP().hashCode());
+			for (Attribute att : Attribute.values())
+				hash = mix(hash, player.getAttributeValue(att).hashCode());
+		}
+		if (layout != null) {
+			hash = mix(hash, layout.getFloorNumber());
+			hash = mix(hash, layout.getPlayerRoom());
+			// Discovered rooms, and what has happened in each.
+			for (int id = layout.nextDiscoveredRoom(0); id >= 0; id = layout
+					.nextDiscoveredRoom(id + 1)) {
+				hash = mix(hash, id);
+				hash = mix(hash, (layout.roomEntered(id) ? 1 : 0)
+						| (layout.roomSearched(id) ? 2 : 0));
+				hash = mix(hash, layout.getEnemyCount(id));
+			}
+			if (layout.roomExists(layout.getPlayerRoom()))
+				for (Enemy enemy : layout.getRoom().getEnemies()) {
+					hash = mix(hash, enemy.toString().hashCode());
+					hash = mix(hash, enemy.getHP().hashCode());
+				}
+		}
+		return hash;
+	}
+
+	/* Adds a value to a hash. */
+	private static long mix(long hash, long value) {
+		return GameRandom.mix(hash * 31 + value);
+	}
+
 	// Button input subfunctions.
 
 	/*
@@ -123,7 +254,11 @@ public class GameController {
 			return;
 		}
 		// Also create a new floor layout (this may be refactored later).
-		layout = new FloorLayout(1, new Dimension(2, 0));
+		layout = new FloorLayout(1, new Dimension(2, 0), model.getContext());
+		if (prefetcher != null)
+			prefetcher.shutdown();
+		prefetcher = new FloorPrefetcher(model.getContext());
+		prefetchNextFloor();
 		// Update the model.
 		model.setPlayer(player);
 		model.setLayout(layout);
@@ -132,28 +267,64 @@ public class GameController {
 		state = GameState.COMBAT;
 	}
 
+	/*
+	 * Takes the player down the stairs to the next floor, which will normally
+	 * have been built in the background already. Does nothing unless the
+	 * player can descend, whatever the view offers.
+	 */
+	private void descend() {
+		if (!layout.canDescend())
+			return;
+		// The player arrives where the stairs were, on the floor below.
+		FloorLayout previous = layout;
+		layout = prefetcher.take(layout.getFloorNumber() + 1,
+				layout.getPlayerLocation());
+		previous.close();
+		prefetchNextFloor();
+		model.setLayout(layout);
+		model.displayMessage("Descended to floor " + layout.getFloorNumber()
+				+ ".");
+		layout.showRoom();
+	}
+
+	/* Starts building the floor below the current one in the background. */
+	private void prefetchNextFloor() {
+		Dimension stairs = new Dimension(layout.getRoomX(layout
+				.getStairsRoom()), layout.getRoomY(layout.getStairsRoom()));
+		prefetcher.prefetch(layout.getFloorNumber() + 1, stairs);
+	}
+
 	private void interpretAttack(String attack, GameCharacter target) {
-		if (attack == "Attack")
+		if ("Attack".equals(attack))
 			player.attack(target);
-		// Get updated current enemies list.
-		List<Enemy> currentEnemies = layout.getRoom().getEnemies();
-		// Check for target death.
-		if (currentEnemies.isEmpty()) {
+		// Check whether the last enemy died.
+		if (!layout.inCombat()) {
 			model.showMovementControls();
 			state = GameState.EXPLORING;
 			return;
 		}
 		// Give the target a chance to hit back.
-		for (Enemy enemy : currentEnemies)
+		for (Enemy enemy : layout.getRoom().getEnemies())
 			enemy.attack(player);
 	}
 
 	/**
-	 * @param vagina Arguments to be passed to the main method.
+	 * Starts the game. If a file is given, every command is recorded in a
+	 * journal written to it, which is ended when the program exits.
+	 *
+	 * @param args Arguments to be passed to the main method: optionally, the
+	 *            file to record the game's journal in.
+	 * @throws IOException if the journal cannot be created.
 	 */
-	public static void main(String[] vagina) {
+	public static void main(String[] args) throws IOException {
 		Model model = new Model();
 		GameController controller = new GameController(model);
+		if (args.length > 0) {
+			controller.setJournal(new InputJournal(Paths.get(args[0]), model
+					.getContext().getRandom().getSeed()));
+			Runtime.getRuntime().addShutdownHook(
+					new Thread(controller::endGame));
+		}
 		GUI mainGUI = new GUI(controller);
 		model.setView(mainGUI);
 
@@ -0,0 +1,265 @@
+package com.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.utils.StatValue;
+
+/**
+ * An append-only record of every command given to a game, along with the
+ * game's seed and the StatValue precision it was played at, from which the
+ * game can be replayed exactly. Commands are numbered by turn, and each is
+ * written through to the file as soon as it is recorded, so a journal cut
+ * short by a crash still holds every turn up to it. When the game ends, a
+ * hash of its final state is written, so that a replay can check it arrives
+ * at the same state.
+ *
+ * Journals are plain text, one line per entry, so they can be read and edited
+ * by hand when reproducing a problem.
+ *
+ * @author Christopher
+ *
+ */
+public final class InputJournal {
+
+	/* First line of every journal, identifying the format. */
+	private static final String HEADER = "ExponRPG journal 1";
+	/* Prefixes of the seed, precision and final state lines. */
+	private static final String SEED = "seed ";
+	private static final String PRECISION = "precision ";
+	private static final String END = "end ";
+	/* Size of the buffer entries are encoded in before being written. */
+	private static final int BUFFER_SIZE = 8192;
+
+	/* The file being written to. */
+	private final FileChannel channel;
+	/* Entries not yet written to the file. */
+	private final ByteBuffer buffer;
+	/* Number of commands recorded so far. */
+	private int turn;
+	/* Whether the journal has been closed. */
+	private boolean closed;
+
+	/**
+	 * Starts a new journal of the game with the given seed, played at the
+	 * current StatValue precision, replacing any file already at the given
+	 * path.
+	 *
+	 * @param file file to write the journal to.
+	 * @param seed the seed of the game being recorded.
+	 * @throws IOException if the file cannot be created.
+	 */
+	public InputJournal(Path file, long seed) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		append(HEADER);
+		append(SEED + seed);
+		append(PRECISION + StatValue.getPrecision());
+		flush();
+	}
+
+	/**
+	 * Records a command given to the game, as the next turn, and writes it to
+	 * the file at once.
+	 *
+	 * @param command the command given.
+	 */
+	public synchronized void record(String command) {
+		if (command.indexOf('\n') >= 0 || command.indexOf('\r') >= 0)
+			throw new IllegalArgumentException(
+					"Commands cannot span several lines.");
+		append(++turn + "\t" + command);
+		flush();
+	}
+
+	/**
+	 * @return the number of commands recorded so far.
+	 */
+	public synchronized int getTurn() {
+		return turn;
+	}
+
+	/**
+	 * Writes any buffered entries to the file.
+	 */
+	public synchronized void flush() {
+		if (closed)
+			return;
+		buffer.flip();
+		try {
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write journal.", e);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Ends the journal, recording the number of turns taken and a hash of the
+	 * game's final state, and closes the file. Nothing more can be recorded.
+	 *
+	 * @param stateHash hash of the game's final state.
+	 */
+	public synchronized void close(long stateHash) {
+		if (closed)
+			return;
+		append(END + turn + " " + Long.toHexString(stateHash));
+		flush();
+		closed = true;
+		try {
+			channel.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not close journal.", e);
+		}
+	}
+
+	/* Adds a line to the buffer, writing the buffer out first if it is full. */
+	private void append(String line) {
+		if (closed)
+			throw new IllegalStateException("The journal has been closed.");
+		byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > buffer.remaining())
+			flush();
+		if (bytes.length > buffer.capacity()) {
+			// Lines too long to buffer are written directly.
+			try {
+				ByteBuffer direct = ByteBuffer.wrap(bytes);
+				while (direct.hasRemaining())
+					channel.write(direct);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not write journal.", e);
+			}
+			return;
+		}
+		buffer.put(bytes);
+	}
+
+	// Reading.
+
+	/**
+	 * Reads the journal in the given file.
+	 *
+	 * @param file file the journal was written to.
+	 * @return the game recorded in the journal.
+	 * @throws IOException if the file cannot be read, or is not a journal.
+	 */
+	public static Recording read(Path file) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(file,
+				StandardCharsets.UTF_8)) {
+			if (!HEADER.equals(reader.readLine()))
+				throw new IOException(file + " is not a journal.");
+			String seedLine = reader.readLine();
+			if (seedLine == null || !seedLine.startsWith(SEED))
+				throw new IOException(file + " has no seed.");
+			long seed = Long.parseLong(seedLine.substring(SEED.length()));
+			// Journals from before precision was recorded used the default.
+			int precision = StatValue.DEFAULT_PRECISION;
+			String line = reader.readLine();
+			if (line != null && line.startsWith(PRECISION)) {
+				precision = Integer.parseInt(line.substring(PRECISION
+						.length()));
+				if (precision < StatValue.MIN_PRECISION)
+					throw new IOException(file + " has a bad precision: "
+							+ precision);
+				line = reader.readLine();
+			}
+			List<String> commands = new ArrayList<String>();
+			Long finalHash = null;
+			for (; line != null; line = reader.readLine()) {
+				if (line.startsWith(END)) {
+					String[] parts = line.substring(END.length()).split(" ");
+					if (Integer.parseInt(parts[0]) != commands.size())
+						throw new IOException(file + " is missing commands.");
+					finalHash = Long.parseUnsignedLong(parts[1], 16);
+					break;
+				}
+				int tab = line.indexOf('\t');
+				if (tab < 0 || Integer.parseInt(line.substring(0, tab))
+						!= commands.size() + 1)
+					throw new IOException(file + " has a bad entry: " + line);
+				commands.add(line.substring(tab + 1));
+			}
+			return new Recording(seed, precision, commands, finalHash);
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			throw new IOException(file + " is not a valid journal.", e);
+		}
+	}
+
+	/**
+	 * A game read back from a journal: its seed, its precision, and the
+	 * commands given to it in order.
+	 *
+	 * @author Christopher
+	 *
+	 */
+	public static final class Recording {
+
+		/* The seed of the game. */
+		private final long seed;
+		/* The StatValue precision the game was played at. */
+		private final int precision;
+		/* Commands given, in turn order. */
+		private final List<String> commands;
+		/* Hash of the final state, or null if the game did not end. */
+		private final Long finalHash;
+
+		Recording(long seed, int precision, List<String> commands,
+				Long finalHash) {
+			this.seed = seed;
+			this.precision = precision;
+			this.commands = Collections.unmodifiableList(commands);
+			this.finalHash = finalHash;
+		}
+
+		/**
+		 * @return the seed of the game.
+		 */
+		public long getSeed() {
+			return seed;
+		}
+
+		/**
+		 * @return the StatValue precision the game was played at.
+		 */
+		public int getPrecision() {
+			return precision;
+		}
+
+		/**
+		 * @return the commands given, in turn order.
+		 */
+		public List<String> getCommands() {
+			return commands;
+		}
+
+		/**
+		 * @return true if the journal was ended, and holds a final state hash.
+		 */
+		public boolean hasFinalHash() {
+			return finalHash != null;
+		}
+
+		/**
+		 * @return the hash of the game's final state.
+		 */
+		public long getFinalHash() {
+			if (finalHash == null)
+				throw new IllegalStateException("The game did not end.");
+			return finalHash;
+		}
+
+	}
+
+}
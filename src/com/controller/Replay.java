@@ -0,0 +1,117 @@
+package com.controller;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.model.Model;
+import com.utils.StatValue;
+
+/**
+ * Plays a recorded game again, feeding each command in its journal back
+ * through a game controller, exactly as it was first given. Replays have no
+ * view and never wait for input, so they run as fast as the game can be
+ * played. As every game depends only on its seed and its commands, a replay
+ * finishes in the same state as the original game, which is checked against
+ * the hash recorded at its end. The game must be replayed at the StatValue
+ * precision it was recorded at.
+ *
+ * @author Christopher
+ *
+ */
+public final class Replay {
+
+	/* The game being replayed. */
+	private final InputJournal.Recording recording;
+
+	/**
+	 * Creates a replay of the given game.
+	 *
+	 * @param recording the recorded game.
+	 */
+	public Replay(InputJournal.Recording recording) {
+		this.recording = recording;
+	}
+
+	/**
+	 * Plays the game through from its seed, giving every recorded command in
+	 * turn.
+	 *
+	 * @return the hash of the game's final state.
+	 * @throws IllegalStateException if the current precision is not the one
+	 *             the game was recorded at.
+	 */
+	public long run() {
+		if (StatValue.getPrecision() != recording.getPrecision())
+			throw new IllegalStateException("The game was recorded at a "
+					+ "precision of " + recording.getPrecision()
+					+ " digits, not " + StatValue.getPrecision() + ".");
+		Model model = new Model(recording.getSeed());
+		GameController controller = new GameController(model);
+		controller.startNewGame();
+		for (String command : recording.getCommands())
+			controller.acceptCommand(command);
+		long hash = controller.getStateHash();
+		controller.endGame();
+		return hash;
+	}
+
+	/**
+	 * Plays the game through, and checks it finishes in the recorded state.
+	 *
+	 * @return true if the final state matches, or if the journal was never
+	 *         ended and so records no final state.
+	 */
+	public boolean verify() {
+		long hash = run();
+		return !recording.hasFinalHash() || hash == recording.getFinalHash();
+	}
+
+	/**
+	 * Replays each of the given journals and prints whether each finished in
+	 * its recorded state. As the precision is shared, journals are replayed
+	 * a precision at a time, in parallel within each. Journals that cannot be
+	 * read, or record an invalid precision, are reported as bad and count as
+	 * failures.
+	 *
+	 * @param args the journal files to replay.
+	 */
+	public static void main(String[] args) {
+		Map<Integer, List<String>> files =
+				new TreeMap<Integer, List<String>>();
+		Map<String, Replay> replays = new TreeMap<String, Replay>();
+		long failed = 0;
+		for (String file : args) {
+			InputJournal.Recording recording;
+			try {
+				recording = InputJournal.read(Paths.get(file));
+			} catch (IOException e) {
+				System.out.println("BAD      " + e.getMessage());
+				failed++;
+				continue;
+			}
+			files.computeIfAbsent(recording.getPrecision(),
+					precision -> new ArrayList<String>()).add(file);
+			replays.put(file, new Replay(recording));
+		}
+		long start = System.nanoTime();
+		for (Map.Entry<Integer, List<String>> group : files.entrySet()) {
+			StatValue.setPrecision(group.getKey());
+			failed += group.getValue().parallelStream().filter(file -> {
+				boolean matched = replays.get(file).verify();
+				System.out.println((matched ? "OK       " : "MISMATCH ")
+						+ file);
+				return !matched;
+			}).count();
+		}
+		System.out.println("Replayed " + args.length + " game(s) in "
+				+ (System.nanoTime() - start) / 1000000 + "ms, " + failed
+				+ " bad or mismatched.");
+		if (failed > 0)
+			System.exit(1);
+	}
+
+}
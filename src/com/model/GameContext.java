@@ -0,0 +1,72 @@
+package com.model;
+
+import com.model.entity.npc.EnemyRegistry;
+import com.model.event.EventBus;
+
+/**
+ * The services shared by everything within a single game, such as its source
+ * of random numbers, the bus its events are published on and the profiles of
+ * its enemies. Entities and layouts reach the game they belong to through its
+ * context, so that separate games never share state.
+ *
+ * @author Christopher
+ *
+ */
+public class GameContext {
+
+	/* The game's source of random numbers. */
+	private final GameRandom random;
+	/* Bus the game's events are published on. */
+	private final EventBus events;
+	/* Profiles of the game's enemies, by floor. */
+	private final EnemyRegistry enemies;
+
+	/**
+	 * Creates a context for a new game with an unpredictable seed.
+	 */
+	public GameContext() {
+		this(new GameRandom());
+	}
+
+	/**
+	 * Creates a context for a new game with the given seed.
+	 *
+	 * @param seed the seed of the game.
+	 */
+	public GameContext(long seed) {
+		this(new GameRandom(seed));
+	}
+
+	/**
+	 * Creates a context for a game using the given source of random numbers.
+	 *
+	 * @param random the game's source of random numbers.
+	 */
+	public GameContext(GameRandom random) {
+		this.random = random;
+		events = new EventBus();
+		enemies = new EnemyRegistry();
+	}
+
+	/**
+	 * @return the game's source of random numbers.
+	 */
+	public GameRandom getRandom() {
+		return random;
+	}
+
+	/**
+	 * @return the bus the game's events are published on.
+	 */
+	public EventBus getEvents() {
+		return events;
+	}
+
+	/**
+	 * @return the profiles of the game's enemies, by floor.
+	 */
+	public EnemyRegistry getEnemies() {
+		return enemies;
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * The source of all randomness in a single game. The game owns a seed, from
+ * which a separate stream is derived for each purpose, so that, for example,
+ * drawing an extra cosmetic image never changes the outcome of a fight. Games
+ * never share generators, so they can be run in parallel without contention,
+ * and any game can be replayed exactly from its seed.
+ *
+ * Like the SplittableRandom streams it provides, this class is not safe to use
+ * from multiple threads at once. Each thread should have its own game.
+ *
+ * @author Christopher
+ *
+ */
+public final class GameRandom {
+
+	/**
+	 * The separate purposes random numbers are drawn for.
+	 *
+	 * @author Christopher
+	 *
+	 */
+	public enum Stream {
+		/**
+		 * Damage rolls, critical hits and other combat outcomes.
+		 */
+		COMBAT,
+		/**
+		 * Attribute growth when levelling up.
+		 */
+		LEVEL_UP,
+		/**
+		 * Floor, room and enemy generation.
+		 */
+		GENERATION,
+		/**
+		 * Choices that only affect presentation, such as images.
+		 */
+		COSMETIC
+	}
+
+	/* Increment used by SplitMix64 to separate consecutive seeds. */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/* The seed all streams are derived from. */
+	private final long seed;
+	/* Generators for each stream, by Stream ordinal. */
+	private final SplittableRandom[] streams;
+
+	/**
+	 * Creates a random source with an unpredictable seed.
+	 */
+	public GameRandom() {
+		this(new SplittableRandom().nextLong());
+	}
+
+	/**
+	 * Creates a random source with the given seed. Two sources with the same
+	 * seed will produce the same numbers on every stream.
+	 *
+	 * @param seed the seed of the game.
+	 */
+	public GameRandom(long seed) {
+		this.seed = seed;
+		Stream[] values = Stream.values();
+		streams = new SplittableRandom[values.length];
+		for (int i = 0; i < values.length; i++)
+			streams[i] = new SplittableRandom(mix(seed + GOLDEN_GAMMA * (i + 1)));
+	}
+
+	/**
+	 * @return the seed of the game.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Gets the generator for the given stream.
+	 *
+	 * @param stream purpose the numbers will be used for.
+	 * @return the generator for the stream.
+	 */
+	public SplittableRandom get(Stream stream) {
+		return streams[stream.ordinal()];
+	}
+
+	/**
+	 * Creates a new generator for the given stream, determined only by the
+	 * game's seed and the given keys, such as a floor number and room
+	 * co-ordinates. This lets something be generated the same way whenever it
+	 * is first needed, regardless of what was drawn before.
+	 *
+	 * @param stream purpose the numbers will be used for.
+	 * @param keys values identifying what is being generated.
+	 * @return a new generator for the given keys.
+	 */
+	public SplittableRandom derive(Stream stream, long... keys) {
+		long value = mix(seed + GOLDEN_GAMMA * (stream.ordinal() + 1));
+		for (long key : keys)
+			value = mix(value + GOLDEN_GAMMA * (key + 1));
+		return new SplittableRandom(value);
+	}
+
+	// Utilities.
+
+	/**
+	 * Scrambles the bits of a value, such that similar inputs give unrelated
+	 * outputs. This is the SplitMix64 finaliser, and is used to derive seeds.
+	 *
+	 * @param value value to be mixed.
+	 * @return the mixed value.
+	 */
+	public static long mix(long value) {
+		value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+		value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+		return value ^ (value >>> 31);
+	}
+
+	/**
+	 * Draws a normally distributed value with a mean of 0 and a standard
+	 * deviation of 1, using the polar method.
+	 *
+	 * @param random generator to draw from.
+	 * @return the normally distributed value.
+	 */
+	public static double nextGaussian(SplittableRandom random) {
+		double x, y, s;
+		do {
+			x = random.nextDouble() * 2 - 1;
+			y = random.nextDouble() * 2 - 1;
+			s = x * x + y * y;
+		} while (s >= 1 || s == 0);
+		return x * Math.sqrt(-2 * Math.log(s) / s);
+	}
+
+}
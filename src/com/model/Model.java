@@ -2,10 +2,12 @@ package com.model;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
-import com.model.entity.npc.Enemy;
 import com.model.entity.pc.Player;
 import com.model.entity.pc.PlayerClass;
+import com.model.event.EventBus;
+import com.model.event.GameEvent;
 import com.model.layout.Direction;
 import com.model.layout.FloorLayout;
 import com.utils.StringUtils;
@@ -32,16 +34,36 @@ public class Model {
 	/* A reference to the current player of the game. */
 	private Player player;
 
-	/* Enemies that the player is currently in combat with. */
-	private List<Enemy> currentEnemies;
+	/* Services shared by everything in this game. */
+	private GameContext context;
+	/* Shows the game's events in the view, or null if there is no view. */
+	private Consumer<GameEvent> eventDisplay;
 
 	// Constructors
 
 	/**
-	 * Constructs a fresh game model, with no data yet stored.
+	 * Constructs a fresh game model, with no data yet stored, and an
+	 * unpredictable seed.
 	 */
 	public Model() {
-		currentEnemies = new ArrayList<Enemy>();
+		this(new GameContext());
+	}
+
+	/**
+	 * Constructs a fresh game model, with no data yet stored, whose random
+	 * events are all determined by the given seed.
+	 *
+	 * @param seed the seed of the game.
+	 */
+	public Model(long seed) {
+		this(new GameContext(seed));
+	}
+
+	/*
+	 * Constructs a fresh game model using the given context.
+	 */
+	private Model(GameContext context) {
+		this.context = context;
 	}
 
 	// Controls setup.
@@ -49,12 +71,12 @@ public class Model {
 	/**
 	 * Sets up the related View with the appropriate options for the player to
 	 * select a class. This will construct a button for each currently available
-	 * class, and provide some dialogue.
+	 * class, and provide some dialogue. If the view is set to null, does
+	 * nothing, as when a game is replayed.
 	 */
 	public void showCharacterSelection() {
 		if (view == null)
-			throw new IllegalStateException(
-					"A view must be provided in order to initiate player class selection.");
+			return;
 		view.displayMessage("Select a class.");
 		// Create an array of classes.
 		int numClasses = PlayerClass.values().length;
@@ -91,17 +113,33 @@ public class Model {
 			return;
 		// Set the view layout to display all relevant panels.
 		view.setLayout(GUI.Layout.FULL);
-		// Set buttons to standard directional options.
-		view.setButtons("North", "West", "Search", "East", "South");
-		// Disable any directions that would lead to a wall.
+		// Set buttons to standard directional options. Once the player can
+		// descend, they may do so instead of searching.
+		boolean descend = layout.canDescend();
+		view.setButtons("North", "West", descend ? "Descend" : "Search",
+				"East", "South");
+		// Disable any directions that would lead to a wall or locked door.
 		List<String> walls = new ArrayList<String>();
 		for (Direction dir : Direction.values())
-			if (!layout.roomExists(dir))
+			if (!layout.roomExists(dir) || layout.doorLocked(dir))
 				walls.add(StringUtils.titleCase(dir.toString()));
 		for (String dir : walls)
 			view.setButtonEnabled(dir, false);
 		// Search button is disabled if room has already been searched.
-		view.setButtonEnabled("Search", !layout.getRoom().hasBeenSearched());
+		if (!descend)
+			view.setButtonEnabled("Search",
+					!layout.getRoom().hasBeenSearched());
+	}
+
+	/**
+	 * Displays a message to the player. If the view is set to null, does
+	 * nothing.
+	 *
+	 * @param message message to be displayed.
+	 */
+	public void displayMessage(String message) {
+		if (view != null)
+			view.displayMessage(message);
 	}
 
 	// Accessors.
@@ -113,6 +151,7 @@ public class Model {
 	 */
 	public void setPlayer(Player player) {
 		this.player = player;
+		player.setContext(context);
 
 		if (view != null) {
 			view.displayMessage("Player class is now "
@@ -120,7 +159,6 @@ public class Model {
 
 			// Inform interested parties. TODO: Remove circular reference.
 			view.setPlayer(player);
-			player.setView(view);
 		}
 	}
 
@@ -133,23 +171,39 @@ public class Model {
 		if (view != null) {
 			// Inform interested parties. TODO: Remove circular reference.
 			view.setFloorLayout(layout);
-			layout.setView(view);
+			view.setBackgroundImage(BackgroundImage.ROOM);
+			view.clearForeground();
 		}
 	}
 
+	/**
+	 * @return the context shared by everything in this game.
+	 */
+	public GameContext getContext() {
+		return context;
+	}
+
 	/**
 	 * Causes the model, and all sub-elements of the model, to begin sending
-	 * messages and notifications to the specified view object.
+	 * messages and notifications to the specified view object, in place of
+	 * any previous view. Everything in the game reaches the view through a
+	 * single subscription to the game's events, so this takes the same time
+	 * however large the game is.
 	 *
-	 * @param view GUI to be sent notifications.
+	 * @param view GUI to be sent notifications, or null to detach the view.
 	 */
 	public void setView(GUI view) {
 		this.view = view;
-		if (player != null)
-			player.setView(view);
-		if (currentEnemies != null)
-			for (Enemy enemy : currentEnemies)
-				enemy.setView(view);
+		EventBus events = context.getEvents();
+		if (eventDisplay != null)
+			events.unsubscribe(eventDisplay);
+		eventDisplay = null;
+		if (view == null)
+			return;
+		view.setRandom(context.getRandom().get(GameRandom.Stream.COSMETIC));
+		// Show the game's events in the new view.
+		eventDisplay = view::displayEvent;
+		events.subscribe(GameEvent.class, eventDisplay);
 	}
 
 }
@@ -0,0 +1,181 @@
+package com.model.combat;
+
+import java.util.Locale;
+
+/**
+ * The results of a batch of simulated fights, as produced by a
+ * CombatSimulator. This counts how many fights were won, lost or drawn, and
+ * records the distributions of turns taken to win and of damage dealt per hit
+ * by each side.
+ *
+ * Reports are filled in by a single thread, and merged together once each
+ * thread has finished.
+ *
+ * @see CombatSimulator
+ *
+ * @author Christopher
+ *
+ */
+public final class CombatReport {
+
+	/* Outcome counts. */
+	private long wins;
+	private long losses;
+	private long draws;
+	/* Total number of attacks made by either side. */
+	private long turns;
+	/* Time taken to run the fights, in nanoseconds. */
+	private long elapsedNanos;
+
+	/* Player turns needed to kill every enemy, for each fight won. */
+	private final Histogram turnsToKill;
+	/* Damage dealt per hit by the player. */
+	private final Histogram playerDamage;
+	/* Damage dealt per hit by the enemies. */
+	private final Histogram enemyDamage;
+
+	/**
+	 * Creates an empty report.
+	 */
+	CombatReport() {
+		turnsToKill = new Histogram();
+		playerDamage = new Histogram();
+		enemyDamage = new Histogram();
+	}
+
+	// Recording.
+
+	/* Records a fight the player won in the given number of their turns. */
+	void recordWin(long playerTurns) {
+		wins++;
+		turnsToKill.add(playerTurns);
+	}
+
+	/* Records a fight the player lost. */
+	void recordLoss() {
+		losses++;
+	}
+
+	/* Records a fight that ran out of turns. */
+	void recordDraw() {
+		draws++;
+	}
+
+	/* Adds to the number of attacks made. */
+	void addTurns(long count) {
+		turns += count;
+	}
+
+	/* Sets the time taken to run the fights. */
+	void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/* Adds the results of another report to this one. */
+	void merge(CombatReport other) {
+		wins += other.wins;
+		losses += other.losses;
+		draws += other.draws;
+		turns += other.turns;
+		turnsToKill.merge(other.turnsToKill);
+		playerDamage.merge(other.playerDamage);
+		enemyDamage.merge(other.enemyDamage);
+	}
+
+	// Accessor functions.
+
+	/**
+	 * @return the number of fights simulated.
+	 */
+	public long getFights() {
+		return wins + losses + draws;
+	}
+
+	/**
+	 * @return the number of fights won by the player.
+	 */
+	public long getWins() {
+		return wins;
+	}
+
+	/**
+	 * @return the number of fights lost by the player.
+	 */
+	public long getLosses() {
+		return losses;
+	}
+
+	/**
+	 * @return the number of fights that reached the turn limit.
+	 */
+	public long getDraws() {
+		return draws;
+	}
+
+	/**
+	 * @return the fraction of fights won by the player, as a decimal.
+	 */
+	public double getWinRate() {
+		long fights = getFights();
+		return fights == 0 ? 0 : (double) wins / fights;
+	}
+
+	/**
+	 * @return the total number of attacks made by either side.
+	 */
+	public long getTurns() {
+		return turns;
+	}
+
+	/**
+	 * @return the number of attacks simulated per second.
+	 */
+	public double getTurnsPerSecond() {
+		return elapsedNanos == 0 ? 0 : turns * 1e9 / elapsedNanos;
+	}
+
+	/**
+	 * @return the time taken to run the fights, in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return the number of player turns needed to win, over the fights won.
+	 */
+	public Histogram getTurnsToKill() {
+		return turnsToKill;
+	}
+
+	/**
+	 * @return the damage dealt by each of the player's hits.
+	 */
+	public Histogram getPlayerDamage() {
+		return playerDamage;
+	}
+
+	/**
+	 * @return the damage dealt by each of the enemies' hits.
+	 */
+	public Histogram getEnemyDamage() {
+		return enemyDamage;
+	}
+
+	/**
+	 * @return a human readable summary of the report.
+	 */
+	@Override
+	public String toString() {
+		return getFights() + " fights: " + wins + " won, " + losses
+				+ " lost, " + draws + " drawn ("
+				+ String.format(Locale.ROOT, "%.2f", getWinRate() * 100)
+				+ "% win rate)\n" + "Turns to kill: " + turnsToKill + "\n"
+				+ "Player damage: " + playerDamage + "\n" + "Enemy damage: "
+				+ enemyDamage + "\n" + turns + " turns in "
+				+ String.format(Locale.ROOT, "%.3f", elapsedNanos / 1e9)
+				+ "s (" + String.format(Locale.ROOT, "%.0f",
+						getTurnsPerSecond()) + " per second)";
+	}
+
+}
@@ -0,0 +1,318 @@
+package com.model.combat;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.model.GameContext;
+import com.model.GameRandom;
+import com.model.entity.npc.Enemy;
+import com.model.entity.npc.EnemyProfile;
+import com.model.entity.npc.EnemyType;
+import com.model.entity.pc.Player;
+import com.model.entity.pc.PlayerClass;
+import com.utils.StatValue;
+
+/**
+ * Runs fights between a player and a group of enemies without a view, for
+ * balance testing. Fights follow the same rules as the game: each turn, the
+ * player attacks the first living enemy, and then every living enemy attacks
+ * the player, until one side is dead.
+ *
+ * The combatants' statistics are read once, when the simulator is created,
+ * and each fight starts from them afresh. Fights are split between all cores
+ * with fork/join. Each batch of fights draws from its own generator, seeded
+ * from the simulation seed and the batch's position, so a simulation gives
+ * the same report for the same seed however the work is scheduled. When
+ * every statistic fits in a long, fights run on primitive values and do not
+ * allocate, falling back on StatValue arithmetic otherwise.
+ *
+ * @author Christopher
+ *
+ */
+public final class CombatSimulator {
+
+	/* Fights run sequentially by a single fork/join task. */
+	private static final int BATCH_SIZE = 4096;
+	/* Default number of player turns before a fight is declared a draw. */
+	private static final long DEFAULT_MAX_TURNS = 10000;
+
+	/* The player's starting statistics. */
+	private final StatValue playerHP;
+	private final StatValue playerAttack;
+	private final DamageRoll playerRoll;
+	/* Each enemy's starting statistics, in the order they are attacked. */
+	private final StatValue[] enemyHP;
+	private final StatValue[] enemyAttack;
+	private final DamageRoll[] enemyRolls;
+
+	/* The same statistics as longs, if they all fit. */
+	private final boolean fitsInLong;
+	private final long playerHPLong;
+	private final long playerAttackLong;
+	private final long[] enemyHPLong;
+	private final long[] enemyAttackLong;
+
+	/* Player turns before a fight is declared a draw. */
+	private long maxTurns;
+
+	/**
+	 * Creates a simulator for fights between a player of the given class and
+	 * level, and a group of enemies. The player is levelled up from level 1
+	 * with the given seed.
+	 *
+	 * @param playerClass the class of the player.
+	 * @param level the level of the player.
+	 * @param seed seed used to level up the player.
+	 * @param enemies profiles of the enemies fought together.
+	 */
+	public CombatSimulator(PlayerClass playerClass, long level, long seed,
+			EnemyProfile... enemies) {
+		this(createPlayer(playerClass, level, seed), enemies);
+	}
+
+	/**
+	 * Creates a simulator for fights between the given player, at full health,
+	 * and a group of enemies.
+	 *
+	 * @param player the player, whose statistics are copied.
+	 * @param enemies profiles of the enemies fought together.
+	 */
+	public CombatSimulator(Player player, EnemyProfile... enemies) {
+		if (enemies.length == 0)
+			throw new IllegalArgumentException("At least one enemy is needed.");
+		playerHP = player.getMaxHP();
+		playerAttack = player.getAttackDamage();
+		playerRoll = player.getDamageRoll();
+		enemyHP = new StatValue[enemies.length];
+		enemyAttack = new StatValue[enemies.length];
+		enemyRolls = new DamageRoll[enemies.length];
+		boolean fits = playerHP.fitsInLong() && playerAttack.fitsInLong();
+		for (int i = 0; i < enemies.length; i++) {
+			Enemy enemy = new Enemy(enemies[i]);
+			enemyHP[i] = enemy.getHP();
+			enemyAttack[i] = enemy.getAttackDamage();
+			enemyRolls[i] = enemy.getDamageRoll();
+			fits &= enemyHP[i].fitsInLong() && enemyAttack[i].fitsInLong();
+		}
+		fitsInLong = fits;
+		playerHPLong = playerHP.longValue();
+		playerAttackLong = playerAttack.longValue();
+		enemyHPLong = new long[enemies.length];
+		enemyAttackLong = new long[enemies.length];
+		for (int i = 0; i < enemies.length; i++) {
+			enemyHPLong[i] = enemyHP[i].longValue();
+			enemyAttackLong[i] = enemyAttack[i].longValue();
+		}
+		maxTurns = DEFAULT_MAX_TURNS;
+	}
+
+	/* Creates a silent player of the given class and level. */
+	private static Player createPlayer(PlayerClass playerClass, long level,
+			long seed) {
+		Player player = new Player(playerClass);
+		player.setContext(new GameContext(seed));
+		if (level > 1)
+			player.levelUp(level - 1);
+		return player;
+	}
+
+	// Simulation.
+
+	/**
+	 * Simulates the given number of fights in parallel on the common fork/join
+	 * pool.
+	 *
+	 * @param fights number of fights to simulate.
+	 * @param seed seed the fights' random numbers are derived from.
+	 * @return the results of the fights.
+	 */
+	public CombatReport simulate(long fights, long seed) {
+		return simulate(fights, seed, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Simulates the given number of fights in parallel on the given pool.
+	 *
+	 * @param fights number of fights to simulate.
+	 * @param seed seed the fights' random numbers are derived from.
+	 * @param pool pool to run the fights on.
+	 * @return the results of the fights.
+	 */
+	public CombatReport simulate(long fights, long seed, ForkJoinPool pool) {
+		if (fights < 0)
+			throw new IllegalArgumentException("Fights cannot be negative.");
+		long start = System.nanoTime();
+		CombatReport report = pool.invoke(new Batch(GameRandom.mix(seed), 0,
+				fights));
+		report.setElapsedNanos(System.nanoTime() - start);
+		return report;
+	}
+
+	/*
+	 * Runs the fights numbered from first, inclusive, to last, exclusive, on
+	 * the calling thread.
+	 */
+	private CombatReport runBatch(long seed, long first, long last) {
+		CombatReport report = new CombatReport();
+		// Batches are always split at the same points, so seeds are stable.
+		SplittableRandom random = new GameRandom(seed + first)
+				.get(GameRandom.Stream.COMBAT);
+		long[] hp = new long[enemyHPLong.length];
+		for (long i = first; i < last; i++)
+			if (fitsInLong)
+				fight(hp, random, report);
+			else
+				fightExact(random, report);
+		return report;
+	}
+
+	/* Runs a single fight on primitive values. */
+	private void fight(long[] hp, SplittableRandom random, CombatReport report) {
+		System.arraycopy(enemyHPLong, 0, hp, 0, hp.length);
+		Histogram playerDamage = report.getPlayerDamage();
+		Histogram enemyDamage = report.getEnemyDamage();
+		long playerHP = playerHPLong;
+		int target = 0;
+		long turns = 0;
+		for (long round = 1; round <= maxTurns; round++) {
+			// The player attacks the first living enemy.
+			long dealt = playerRoll.roll(playerAttackLong, random);
+			playerDamage.add(dealt);
+			turns++;
+			hp[target] -= dealt;
+			if (hp[target] <= 0 && ++target == hp.length) {
+				report.addTurns(turns);
+				report.recordWin(round);
+				return;
+			}
+			// Every living enemy hits back.
+			for (int i = target; i < hp.length; i++) {
+				long taken = enemyRolls[i].roll(enemyAttackLong[i], random);
+				enemyDamage.add(taken);
+				turns++;
+				playerHP -= taken;
+				if (playerHP <= 0) {
+					report.addTurns(turns);
+					report.recordLoss();
+					return;
+				}
+			}
+		}
+		report.addTurns(turns);
+		report.recordDraw();
+	}
+
+	/* Runs a single fight using StatValue arithmetic. */
+	private void fightExact(SplittableRandom random, CombatReport report) {
+		StatValue[] hp = enemyHP.clone();
+		StatValue playerHP = this.playerHP;
+		int target = 0;
+		long turns = 0;
+		for (long round = 1; round <= maxTurns; round++) {
+			StatValue dealt = playerRoll.roll(playerAttack, random);
+			report.getPlayerDamage().add(dealt);
+			turns++;
+			hp[target] = hp[target].subtract(dealt);
+			if (hp[target].signum() <= 0 && ++target == hp.length) {
+				report.addTurns(turns);
+				report.recordWin(round);
+				return;
+			}
+			for (int i = target; i < hp.length; i++) {
+				StatValue taken = enemyRolls[i].roll(enemyAttack[i], random);
+				report.getEnemyDamage().add(taken);
+				turns++;
+				playerHP = playerHP.subtract(taken);
+				if (playerHP.signum() <= 0) {
+					report.addTurns(turns);
+					report.recordLoss();
+					return;
+				}
+			}
+		}
+		report.addTurns(turns);
+		report.recordDraw();
+	}
+
+	/*
+	 * Splits a range of fights in half until it is small enough to run as a
+	 * single batch.
+	 */
+	private class Batch extends RecursiveTask<CombatReport> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long seed;
+		private final long first;
+		private final long last;
+
+		Batch(long seed, long first, long last) {
+			this.seed = seed;
+			this.first = first;
+			this.last = last;
+		}
+
+		@Override
+		protected CombatReport compute() {
+			if (last - first <= BATCH_SIZE)
+				return runBatch(seed, first, last);
+			long middle = first + (last - first) / 2;
+			Batch left = new Batch(seed, first, middle);
+			left.fork();
+			CombatReport report = new Batch(seed, middle, last).compute();
+			report.merge(left.join());
+			return report;
+		}
+
+	}
+
+	// Accessor functions.
+
+	/**
+	 * @return the number of player turns before a fight is declared a draw.
+	 */
+	public long getMaxTurns() {
+		return maxTurns;
+	}
+
+	/**
+	 * Sets the number of player turns before a fight is declared a draw, in
+	 * case neither side can damage the other.
+	 *
+	 * @param maxTurns the maximum number of player turns in a fight.
+	 */
+	public void setMaxTurns(long maxTurns) {
+		if (maxTurns < 1)
+			throw new IllegalArgumentException("Fights need at least one turn.");
+		this.maxTurns = maxTurns;
+	}
+
+	/**
+	 * Simulates fights between a player and a group of goblins, and prints the
+	 * report. Arguments are, in order and all optional: the player class, the
+	 * player level, the number of goblins, the number of fights and the seed.
+	 *
+	 * @param args the simulation settings.
+	 */
+	public static void main(String[] args) {
+		PlayerClass playerClass = args.length > 0 ? PlayerClass
+				.valueOf(args[0].toUpperCase()) : PlayerClass.FIGHTER;
+		long level = args.length > 1 ? Long.parseLong(args[1]) : 1;
+		int enemies = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+		long fights = args.length > 3 ? Long.parseLong(args[3]) : 1000000;
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 0;
+
+		EnemyProfile goblin = EnemyType.GOBLIN.createProfile(1);
+		EnemyProfile[] group = new EnemyProfile[enemies];
+		for (int i = 0; i < enemies; i++)
+			group[i] = goblin;
+
+		CombatSimulator simulator = new CombatSimulator(playerClass, level,
+				seed, group);
+		System.out.println("Level " + level + " " + playerClass + " against "
+				+ enemies + " goblin(s):");
+		System.out.println(simulator.simulate(fights, seed));
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.model.combat;
+
+/**
+ * A single step in a damage roll, such as a critical hit, a resistance or a
+ * piece of armour. Each modifier has a chance of applying, and when it applies
+ * it multiplies the damage by a factor and then adds a flat amount to it.
+ *
+ * Modifiers are immutable, and are flattened into arrays by the DamageRoll they
+ * are given to.
+ *
+ * @see DamageRoll
+ *
+ * @author Christopher
+ *
+ */
+public final class DamageModifier {
+
+	/* Chance of the modifier applying, in thousandths. */
+	final int chance;
+	/* Fixed point multiplier, with DamageRoll.SCALE_BITS fractional bits. */
+	final long multiplier;
+	/* Flat amount added to the damage after multiplying. */
+	final long offset;
+
+	private DamageModifier(double chance, double multiplier, long offset) {
+		if (chance < 0 || chance > 1)
+			throw new IllegalArgumentException("Chance must be between 0 and 1.");
+		if (multiplier < 0 || multiplier > DamageRoll.MAX_MULTIPLIER)
+			throw new IllegalArgumentException("Multiplier must be between 0 and "
+					+ DamageRoll.MAX_MULTIPLIER + ".");
+		this.chance = (int) Math.round(chance * DamageRoll.CHANCE_SCALE);
+		this.multiplier = Math.round(multiplier * DamageRoll.ONE);
+		this.offset = offset;
+	}
+
+	/**
+	 * Creates a critical hit modifier, which multiplies damage by the given
+	 * amount with the given chance.
+	 *
+	 * @param chance chance of a critical hit as a decimal, e.g. 0.05 for 5%.
+	 * @param multiplier damage multiplier of a critical hit.
+	 * @return the critical hit modifier.
+	 */
+	public static DamageModifier critical(double chance, double multiplier) {
+		return new DamageModifier(chance, multiplier, 0);
+	}
+
+	/**
+	 * Creates a resistance modifier, which always reduces damage by the given
+	 * fraction.
+	 *
+	 * @param fraction fraction of damage resisted as a decimal, e.g. 0.25 for
+	 *            25%.
+	 * @return the resistance modifier.
+	 */
+	public static DamageModifier resistance(double fraction) {
+		return new DamageModifier(1, 1 - fraction, 0);
+	}
+
+	/**
+	 * Creates an armour modifier, which always reduces damage by a flat amount.
+	 * Damage will never be reduced below zero.
+	 *
+	 * @param amount amount of damage absorbed.
+	 * @return the armour modifier.
+	 */
+	public static DamageModifier armor(long amount) {
+		return new DamageModifier(1, 1, -amount);
+	}
+
+	/**
+	 * Creates a modifier that always multiplies damage by the given amount.
+	 *
+	 * @param multiplier damage multiplier.
+	 * @return the multiplying modifier.
+	 */
+	public static DamageModifier multiplier(double multiplier) {
+		return new DamageModifier(1, multiplier, 0);
+	}
+
+	/**
+	 * Creates a modifier that always adds a flat amount of damage.
+	 *
+	 * @param amount amount of damage added.
+	 * @return the bonus damage modifier.
+	 */
+	public static DamageModifier bonus(long amount) {
+		return new DamageModifier(1, 1, amount);
+	}
+
+}
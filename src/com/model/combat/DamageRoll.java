@@ -0,0 +1,194 @@
+package com.model.combat;
+
+import java.util.SplittableRandom;
+
+import com.model.GameRandom;
+import com.utils.StatValue;
+
+/**
+ * Rolls the damage dealt by a single attack. The base damage is varied by up to
+ * 25% either side, and then passed through each of the roll's modifiers in
+ * order. All arithmetic is done in fixed point on primitive longs, so rolling
+ * damage that fits within a long does not allocate. Damage too large for a long
+ * falls back on StatValue arithmetic, following the same steps.
+ *
+ * The variance is drawn in steps of 2^-24 of the base damage, so the resulting
+ * damage follows the same distribution as multiplying by a uniformly random
+ * decimal in [0.75, 1.25) and rounding down.
+ *
+ * @author Christopher
+ *
+ */
+public final class DamageRoll {
+
+	/* Number of fractional bits in fixed point values. */
+	static final int SCALE_BITS = 24;
+	/* Fixed point representation of 1. */
+	static final long ONE = 1L << SCALE_BITS;
+	/* Mask for the fractional bits of a fixed point value. */
+	private static final long FRACTION_MASK = ONE - 1;
+	/* Chances are stored as a number of thousandths. */
+	static final int CHANCE_SCALE = 1000;
+	/* Largest multiplier a modifier may apply. */
+	static final double MAX_MULTIPLIER = 1 << 14;
+
+	/* Smallest variance multiplier, 0.75, in fixed point. */
+	private static final long VARIANCE_MIN = ONE * 3 / 4;
+	/* Range of the variance multiplier, 0.5, in fixed point. */
+	private static final long VARIANCE_RANGE = ONE / 2;
+	/* Largest value that long arithmetic may reach, with room to spare. */
+	private static final double LONG_HEADROOM = 1L << 62;
+	/* Mean square of the variance multiplier, 1 + 0.5^2 / 12. */
+	private static final double VARIANCE_MEAN_SQUARE = 1 + 1.0 / 48;
+	/* Largest number of rolls that are summed one at a time. */
+	private static final StatValue EXACT_SUM_LIMIT = StatValue.valueOf(32);
+	/*
+	 * Digits of base damage past which sums are worked out in units of the
+	 * base, so that squaring the mean cannot overflow a double.
+	 */
+	private static final double HUGE_DIGITS = 100;
+
+	/**
+	 * The standard damage roll, varying damage by 25% with no modifiers.
+	 */
+	public static final DamageRoll STANDARD = new DamageRoll();
+
+	/* Flattened modifiers, in the order they are applied. */
+	private final int[] chances;
+	private final long[] multipliers;
+	private final long[] offsets;
+
+	/* Largest base damage that can be rolled without overflowing a long. */
+	private final long longLimit;
+
+	/**
+	 * Creates a damage roll that applies the given modifiers in order, after
+	 * the standard variance has been applied.
+	 *
+	 * @param modifiers modifiers to be applied to each roll.
+	 */
+	public DamageRoll(DamageModifier... modifiers) {
+		chances = new int[modifiers.length];
+		multipliers = new long[modifiers.length];
+		offsets = new long[modifiers.length];
+		// Track how large the damage could possibly grow.
+		double maxGrowth = (double) (VARIANCE_MIN + VARIANCE_RANGE) / ONE;
+		double maxOffset = 0;
+		for (int i = 0; i < modifiers.length; i++) {
+			chances[i] = modifiers[i].chance;
+			multipliers[i] = modifiers[i].multiplier;
+			offsets[i] = modifiers[i].offset;
+			maxGrowth *= Math.max(1, (double) multipliers[i] / ONE);
+			maxOffset = maxOffset * Math.max(1, (double) multipliers[i] / ONE)
+					+ Math.max(0, offsets[i]);
+		}
+		longLimit = (long) Math.max(0, (LONG_HEADROOM - maxOffset) / maxGrowth);
+	}
+
+	/**
+	 * Rolls damage for an attack with the given base damage.
+	 *
+	 * @param base average damage before modifiers.
+	 * @param random generator to draw the variance and modifiers from.
+	 * @return the damage dealt.
+	 */
+	public StatValue roll(StatValue base, SplittableRandom random) {
+		if (base.fitsInLong() && base.signum() >= 0
+				&& base.longValue() <= longLimit)
+			return StatValue.valueOf(roll(base.longValue(), random));
+		// Too large for fixed point, so apply the same steps to the StatValue.
+		StatValue damage = base.multiply((double) nextVariance(random) / ONE);
+		for (int i = 0; i < chances.length; i++)
+			if (applies(i, random)) {
+				damage = damage.multiply((double) multipliers[i] / ONE).add(
+						StatValue.valueOf(offsets[i]));
+				if (damage.signum() < 0)
+					damage = StatValue.ZERO;
+			}
+		return damage;
+	}
+
+	/**
+	 * Rolls damage for an attack with the given base damage. This does not
+	 * allocate, unless the damage could overflow a long, in which case the
+	 * result is saturated at Long.MAX_VALUE.
+	 *
+	 * @param base average damage before modifiers.
+	 * @param random generator to draw the variance and modifiers from.
+	 * @return the damage dealt.
+	 */
+	public long roll(long base, SplittableRandom random) {
+		if (base < 0 || base > longLimit)
+			return roll(StatValue.valueOf(base), random).longValue();
+		long damage = scale(base, nextVariance(random));
+		for (int i = 0; i < chances.length; i++)
+			if (applies(i, random))
+				damage = Math.max(0, scale(damage, multipliers[i])
+						+ offsets[i]);
+		return damage;
+	}
+
+	/**
+	 * Rolls the total damage of many identical attacks at once, such as a horde
+	 * of enemies attacking together. A few attacks are rolled one at a time.
+	 * For more, the total is drawn from the normal distribution with the same
+	 * mean and variance as the sum of the individual rolls, which takes the
+	 * same time however many attacks there are. The approximation ignores
+	 * damage being rounded down, and being kept above zero after armour.
+	 *
+	 * @param base average damage of each attack before modifiers.
+	 * @param count number of attacks.
+	 * @param random generator to draw the variance and modifiers from.
+	 * @return the total damage dealt.
+	 */
+	public StatValue rollSum(StatValue base, StatValue count,
+			SplittableRandom random) {
+		if (count.signum() <= 0)
+			return StatValue.ZERO;
+		if (count.compareTo(EXACT_SUM_LIMIT) <= 0) {
+			StatValue total = StatValue.ZERO;
+			for (int i = 0; i < count.intValue(); i++)
+				total = total.add(roll(base, random));
+			return total;
+		}
+		// Huge damage is worked out in units of the base, where offsets vanish.
+		boolean huge = base.log10() > HUGE_DIGITS;
+		StatValue unit = huge ? base : StatValue.ONE;
+		double mean = huge ? 1 : base.doubleValue();
+		double meanSquare = mean * mean * VARIANCE_MEAN_SQUARE;
+		// Track the first two moments through each modifier, x -> mx + c.
+		for (int i = 0; i < chances.length; i++) {
+			double chance = Math.min(1, (double) chances[i] / CHANCE_SCALE);
+			double m = (double) multipliers[i] / ONE;
+			double c = huge ? 0 : offsets[i];
+			double appliedSquare = m * m * meanSquare + 2 * m * c * mean + c
+					* c;
+			mean += chance * (m * mean + c - mean);
+			meanSquare += chance * (appliedSquare - meanSquare);
+		}
+		double deviation = Math.sqrt(Math.max(0, meanSquare - mean * mean));
+		// The sum of n rolls has mean n * mean and deviation sqrt(n) * deviation.
+		double perAttack = mean + deviation * GameRandom.nextGaussian(random)
+				/ Math.sqrt(count.doubleValue());
+		return unit.multiply(count).multiply(Math.max(0, perAttack));
+	}
+
+	/* Multiplies a value by a fixed point factor, rounding down. */
+	private static long scale(long value, long factor) {
+		// Split the value so that neither product can overflow.
+		return (value >> SCALE_BITS) * factor
+				+ (((value & FRACTION_MASK) * factor) >> SCALE_BITS);
+	}
+
+	/* Draws a fixed point variance multiplier in [0.75, 1.25). */
+	private static long nextVariance(SplittableRandom random) {
+		return VARIANCE_MIN + random.nextLong(VARIANCE_RANGE);
+	}
+
+	/* Draws whether the modifier at the given index applies to this roll. */
+	private boolean applies(int modifier, SplittableRandom random) {
+		return chances[modifier] >= CHANCE_SCALE
+				|| random.nextInt(CHANCE_SCALE) < chances[modifier];
+	}
+
+}
@@ -0,0 +1,258 @@
+package com.model.combat;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.utils.StatValue;
+
+/**
+ * A distribution of non-negative values, such as the damage dealt per hit or
+ * the number of turns taken to win a fight. Values below 100 are counted
+ * exactly, and larger values by their first three significant digits within
+ * their power of ten, so every bucket is within 1% of the values it holds,
+ * and the histogram stays small however large the values grow. Buckets for a
+ * power of ten are only made once a value of that size is added.
+ *
+ * The sum of the values is kept exactly, as a long until it overflows and as
+ * a StatValue beyond, so the mean is meaningful at any size.
+ *
+ * Histograms are not thread safe. Each thread should fill its own, and merge
+ * them together afterwards.
+ *
+ * @author Christopher
+ *
+ */
+public final class Histogram {
+
+	/* Values below this are counted exactly. */
+	private static final int EXACT_LIMIT = 100;
+	/* Significant digits larger values are counted by. */
+	private static final int DIGITS = 3;
+	/* Smallest leading digits, and the number of buckets per power of ten. */
+	private static final int LEADING_MIN = 100;
+	private static final int DECADE_BUCKETS = 900;
+	/* Powers of ten that fit in a long. */
+	private static final long[] POWERS_OF_TEN = new long[19];
+	/* Largest power of ten that fits in a long. */
+	private static final int LONG_DECADES = POWERS_OF_TEN.length - 1;
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++)
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+	}
+
+	/* Counts of exact values. */
+	private final long[] exactCounts;
+	/*
+	 * Counts of values below the largest power of ten in a long, by power of
+	 * ten then leading digits, or null for powers of ten not yet seen.
+	 */
+	private final long[][] decadeCounts;
+	/* Counts of larger values, by power of ten then leading digits. */
+	private final Map<Long, long[]> hugeCounts;
+
+	/* Number of values added. */
+	private long count;
+	/* Sum of the values added, less whatever has overflowed into bigSum. */
+	private long smallSum;
+	private StatValue bigSum;
+
+	/**
+	 * Creates an empty histogram.
+	 */
+	public Histogram() {
+		exactCounts = new long[EXACT_LIMIT];
+		decadeCounts = new long[LONG_DECADES][];
+		hugeCounts = new TreeMap<Long, long[]>();
+		bigSum = StatValue.ZERO;
+	}
+
+	// Recording.
+
+	/**
+	 * Adds a value to the histogram. Negative values are counted as zero.
+	 *
+	 * @param value value to be added.
+	 */
+	public void add(long value) {
+		value = Math.max(0, value);
+		count++;
+		addToSum(value);
+		if (value < EXACT_LIMIT) {
+			exactCounts[(int) value]++;
+			return;
+		}
+		int decade = decade(value);
+		buckets(decade)[(int) (value / POWERS_OF_TEN[decade - DIGITS + 1])
+				- LEADING_MIN]++;
+	}
+
+	/**
+	 * Adds a value to the histogram. Negative values are counted as zero.
+	 *
+	 * @param value value to be added.
+	 */
+	public void add(StatValue value) {
+		if (value.fitsInLong()) {
+			add(value.longValue());
+			return;
+		}
+		if (value.signum() < 0) {
+			add(0);
+			return;
+		}
+		count++;
+		bigSum = bigSum.add(value);
+		// Allow for the mantissa being rounded just below its digits.
+		int leading = (int) (value.getMantissa() * LEADING_MIN + 1e-9);
+		int bucket = Math.max(0, Math.min(DECADE_BUCKETS - 1, leading
+				- LEADING_MIN));
+		buckets(value.getExponent())[bucket]++;
+	}
+
+	/**
+	 * Adds all of the values from another histogram to this one.
+	 *
+	 * @param other histogram to be merged in.
+	 */
+	public void merge(Histogram other) {
+		count += other.count;
+		addToSum(other.smallSum);
+		bigSum = bigSum.add(other.bigSum);
+		for (int i = 0; i < exactCounts.length; i++)
+			exactCounts[i] += other.exactCounts[i];
+		for (int decade = 0; decade < decadeCounts.length; decade++)
+			if (other.decadeCounts[decade] != null)
+				addAll(buckets(decade), other.decadeCounts[decade]);
+		for (Map.Entry<Long, long[]> entry : other.hugeCounts.entrySet())
+			addAll(buckets(entry.getKey()), entry.getValue());
+	}
+
+	/* Adds a non-negative value to the sum, moving it on if it overflows. */
+	private void addToSum(long value) {
+		long sum = smallSum + value;
+		if (sum < 0) {
+			bigSum = bigSum.add(StatValue.valueOf(smallSum));
+			sum = value;
+		}
+		smallSum = sum;
+	}
+
+	/* Adds every count in one set of buckets to another. */
+	private static void addAll(long[] buckets, long[] other) {
+		for (int i = 0; i < buckets.length; i++)
+			buckets[i] += other[i];
+	}
+
+	/* Gets the buckets of a power of ten, making them if need be. */
+	private long[] buckets(long decade) {
+		long[] buckets;
+		if (decade < LONG_DECADES) {
+			buckets = decadeCounts[(int) decade];
+			if (buckets == null) {
+				buckets = new long[DECADE_BUCKETS];
+				decadeCounts[(int) decade] = buckets;
+			}
+		} else {
+			buckets = hugeCounts.get(decade);
+			if (buckets == null) {
+				buckets = new long[DECADE_BUCKETS];
+				hugeCounts.put(decade, buckets);
+			}
+		}
+		return buckets;
+	}
+
+	/* Gets the power of ten of a value of at least the exact limit. */
+	private static int decade(long value) {
+		// Estimate the power of ten from the bit length, then correct it.
+		int decade = ((63 - Long.numberOfLeadingZeros(value)) * 1233) >>> 12;
+		if (decade < LONG_DECADES && value >= POWERS_OF_TEN[decade + 1])
+			decade++;
+		return decade;
+	}
+
+	// Queries.
+
+	/**
+	 * @return the number of values added.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the sum of the values added.
+	 */
+	public StatValue getTotal() {
+		return bigSum.add(StatValue.valueOf(smallSum));
+	}
+
+	/**
+	 * @return the mean of the values added, or 0 if there are none. This is
+	 *         infinite if the mean exceeds the range of a double.
+	 */
+	public double getMean() {
+		return count == 0 ? 0 : getTotal().ratio(StatValue.valueOf(count));
+	}
+
+	/**
+	 * Gets the lowest value that at least the given fraction of the values do
+	 * not exceed. Values of 100 or more are only known to three significant
+	 * digits, so this gives the value at or just below the true value.
+	 *
+	 * @param fraction fraction of values, between 0 and 1, e.g. 0.5 for the
+	 *            median.
+	 * @return the value at the given fraction, or zero if there are no values.
+	 */
+	public StatValue getPercentile(double fraction) {
+		if (fraction < 0 || fraction > 1)
+			throw new IllegalArgumentException(
+					"Fraction must be between 0 and 1.");
+		long needed = Math.max(1, (long) Math.ceil(fraction * count));
+		long seen = 0;
+		for (int i = 0; i < exactCounts.length; i++) {
+			seen += exactCounts[i];
+			if (seen >= needed)
+				return StatValue.valueOf(i);
+		}
+		for (int decade = 0; decade < decadeCounts.length; decade++) {
+			long[] buckets = decadeCounts[decade];
+			for (int i = 0; buckets != null && i < buckets.length; i++) {
+				seen += buckets[i];
+				if (seen >= needed)
+					return StatValue.valueOf((LEADING_MIN + i)
+							* POWERS_OF_TEN[decade - DIGITS + 1]);
+			}
+		}
+		for (Map.Entry<Long, long[]> entry : hugeCounts.entrySet()) {
+			long[] buckets = entry.getValue();
+			for (int i = 0; i < buckets.length; i++) {
+				seen += buckets[i];
+				if (seen >= needed)
+					return StatValue.valueOf((double) (LEADING_MIN + i)
+							/ LEADING_MIN, entry.getKey());
+			}
+		}
+		return StatValue.ZERO;
+	}
+
+	/**
+	 * @return a summary of the distribution, with its mean and percentiles.
+	 */
+	@Override
+	public String toString() {
+		if (count == 0)
+			return "no values";
+		StatValue total = getTotal();
+		// Means too large for a long are shown as StatValues.
+		String mean = total.fitsInLong() ? String.format(Locale.ROOT, "%.2f",
+				getMean()) : total.divide(count).toString();
+		return "mean " + mean + ", min " + getPercentile(0) + ", 10% "
+				+ getPercentile(0.1) + ", median " + getPercentile(0.5)
+				+ ", 90% " + getPercentile(0.9) + ", max " + getPercentile(1);
+	}
+
+}
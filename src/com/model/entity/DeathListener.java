@@ -0,0 +1,19 @@
+package com.model.entity;
+
+/**
+ * Notified when an entity dies, such as by the room holding it.
+ *
+ * @author Christopher
+ *
+ */
+public interface DeathListener {
+
+	/**
+	 * Called once the given entity has died.
+	 *
+	 * @param entity the entity that died.
+	 * @param source entity responsible for the death.
+	 */
+	void entityDied(Entity entity, Entity source);
+
+}
@@ -1,11 +1,15 @@
 package com.model.entity;
 
-import com.view.GUI;
+import com.model.GameContext;
+import com.utils.StatValue;
 
 /**
  * An entity in the game world. This includes everything that could be found or
  * placed in a room, but not elements of the dungeon itself.
  *
+ * Entities hold no reference to the interface. Anything they do is published
+ * on the event bus of the game they belong to, found through its context.
+ *
  * @author Christopher
  *
  */
@@ -17,31 +21,18 @@ public abstract class Entity {
 	/* Whether or not this character is considered dead. */
 	private boolean isDead;
 
-	/* The game controller. Should only be used by extending classes. */
-	protected GUI view;
-	/* Whether notifications are sent. */
-	protected boolean silent;
+	/* The game this entity belongs to. */
+	private GameContext context;
+	/* Notified when this entity dies, or null if nothing is. */
+	private DeathListener deathListener;
 
 	/**
-	 * Creates an Entity with the given name that does not send notifications.
+	 * Creates an Entity with the given name.
 	 *
 	 * @param name name of the entity. Should be human readable.
 	 */
 	public Entity(String name) {
-		this(name, null);
-	}
-
-	/**
-	 * Creates an Entity with the given name that will send notifications to the
-	 * given GUI.
-	 *
-	 * @param name name of the entity. Should be human readable.
-	 * @param view The GUI to send messages to.
-	 */
-	public Entity(String name, GUI view) {
 		this.name = name;
-		this.view = view;
-		silent = view == null;
 	}
 
 	/**
@@ -54,14 +45,16 @@ public abstract class Entity {
 
 	/**
 	 * Kills off the entity, potentially removing it from the game. The entity
-	 * responsible has its registerKill method called. This implementation of
-	 * this method only calls registerKill.
+	 * responsible has its registerKill method called, and the death listener,
+	 * if any, is then notified.
 	 *
 	 * @param source entity responsible for the death.
 	 */
 	public void die(Entity source) {
 		source.registerKill(this);
 		isDead = true;
+		if (deathListener != null)
+			deathListener.entityDied(this, source);
 	}
 
 	/**
@@ -75,14 +68,51 @@ public abstract class Entity {
 	}
 
 	/**
-	 * Sets the output view to send notifications to. Notifications and events
-	 * will be send to this GUI.
+	 * Registers killing off several members of a group at once, such as a
+	 * horde of enemies, without the group itself dying. Default implementation
+	 * of this method is empty.
+	 *
+	 * @param target group whose members were killed off by this entity.
+	 * @param count number of members killed.
+	 */
+	public void registerKills(Entity target, StatValue count) {
+
+	}
+
+	/**
+	 * Gets the context of the game this entity belongs to. Entities must be
+	 * placed in a game before they act, so that they draw from the game's
+	 * random numbers and publish to its events.
+	 *
+	 * @return the context of the game this entity belongs to.
+	 * @throws IllegalStateException if the entity has not been placed in a
+	 *             game.
+	 */
+	public GameContext getContext() {
+		if (context == null)
+			throw new IllegalStateException(this
+					+ " has not been placed in a game.");
+		return context;
+	}
+
+	/**
+	 * Sets the context of the game this entity belongs to. This should be set
+	 * whenever the entity is placed in a game.
+	 *
+	 * @param context the context of the game.
+	 */
+	public void setContext(GameContext context) {
+		this.context = context;
+	}
+
+	/**
+	 * Sets the listener to be notified when this entity dies, replacing any
+	 * previous listener.
 	 *
-	 * @param view view to send messages to
+	 * @param listener the listener to be notified, or null for none.
 	 */
-	public void setView(GUI view) {
-		silent = false;
-		this.view = view;
+	public void setDeathListener(DeathListener listener) {
+		deathListener = listener;
 	}
 
 	/**
@@ -1,13 +1,21 @@
 package com.model.entity;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
-
-import com.view.GUI;
+import java.util.SplittableRandom;
+
+import com.model.GameRandom;
+import com.model.combat.DamageRoll;
+import com.model.event.AttackMade;
+import com.model.event.DamageDealt;
+import com.model.event.EventBus;
+import com.model.event.HealthRestored;
+import com.model.event.ManaRestored;
+import com.model.event.ManaSpent;
+import com.utils.StatValue;
 
 /**
- * Any character in the game, including the player. This stores their health and
- * mana values, and tracks their death and kills.
+ * Any character in the game, including the player. This stores their current
+ * health and mana values, and tracks their death and kills. Maximum values
+ * and attack damage are given by each kind of character.
  *
  * @author Christopher
  *
@@ -16,110 +24,58 @@ import com.view.GUI;
 public abstract class GameCharacter extends Entity {
 
 	/* Current amount of HP. */
-	protected BigInteger currHP;
-	/* Maximum HP. */
-	protected BigInteger maxHP;
+	protected StatValue currHP;
 	/* Current amount of mana. */
-	protected BigInteger currMana;
-	/* Maximum mana count */
-	protected BigInteger maxMana;
+	protected StatValue currMana;
 
-	/* Damage dealt per attack. */
-	private BigInteger attackDamage;
+	/* Roll used to vary and modify the damage of each attack. */
+	private DamageRoll damageRoll = DamageRoll.STANDARD;
 
 	/**
 	 * Creates a character. This only sets their name, and will throw errors if
-	 * used before setting current and max HP. Notifications will not be sent.
+	 * used before setting current HP and mana.
 	 *
 	 * @param name name of the character.
-	 * @param view the GUI to send messages to.
 	 */
 	protected GameCharacter(String name) {
 		super(name);
 	}
 
-	/**
-	 * Creates a character. This only sets their name, and will throw errors if
-	 * used before setting current and max HP. Notifications will be sent to the
-	 * specified View object.
-	 *
-	 * @param name name of the character.
-	 * @param view the GUI to send messages to.
-	 */
-	protected GameCharacter(String name, GUI view) {
-		super(name, view);
-	}
-
-	/**
-	 * Creates a character, setting their maximum health and mana to the given
-	 * values. Current health and mana will also be set to these values. No
-	 * notifications will be sent.
-	 *
-	 * @param name name of the character.
-	 * @param maxHP current and maximum health to be set.
-	 * @param maxMana current and maximum mana to be set.
-	 * @param attackDamage damage dealt per hit.
-	 */
-	protected GameCharacter(String name, BigInteger maxHP, BigInteger maxMana,
-			BigInteger attackDamage) {
-		super(name);
-		init(maxHP, maxMana, attackDamage);
-	}
-
-	/**
-	 * Creates a character, setting their maximum health and mana to the given
-	 * values. Current health and mana will also be set to these values.
-	 * Notifications will be sent to the specificed View object.
-	 *
-	 * @param name name of the character.
-	 * @param view the GUI to send relevant messages to.
-	 * @param maxHP current and maximum health to be set.
-	 * @param maxMana current and maximum mana to be set.
-	 * @param attackDamage damage dealt per hit.
-	 */
-	protected GameCharacter(String name, GUI view, BigInteger maxHP,
-			BigInteger maxMana, BigInteger attackDamage) {
-		super(name, view);
-		init(maxHP, maxMana, attackDamage);
-	}
-
-	private void init(BigInteger maxHP, BigInteger maxMana,
-			BigInteger attackDamage) {
-		this.maxHP = maxHP;
-		this.maxMana = maxMana;
-		this.attackDamage = attackDamage;
-
-		currHP = maxHP;
-		currMana = maxMana;
-	}
-
 	// Actions
 
 	/**
 	 * Attacks the target, dealing their AttackDamage on average per hit. This
-	 * is modified by 25% random variance either side. The takeDamage method of
-	 * the target is then called with this damage as a parameter. Returns the
-	 * amount of damage dealt by the attack.
+	 * is modified by 25% random variance either side, and then by any modifiers
+	 * of this character's damage roll. The takeDamage method of the target is
+	 * then called with this damage as a parameter. Returns the amount of damage
+	 * dealt by the attack.
 	 *
 	 * @param target Target to be attacked.
 	 * @return the amount of damage dealt by the attack.
 	 */
-	public BigInteger attack(GameCharacter target) {
-		// Update the view.
-		if (!silent)
-			view.displayMessage("The " + this + " attacks the " + target + ".");
-		// Calculate base damage dealt
-		BigDecimal damageDecimal = new BigDecimal(getAttackDamage());
-		// Calculate variance (+-25%)
-		double modifier = 0.75 + Math.random() / 2;
-		// Multiply the two together.
-		damageDecimal = damageDecimal.multiply(BigDecimal.valueOf(modifier));
-		// Convert back to BigInteger.
-		BigInteger damageDealt = damageDecimal.toBigInteger();
+	public StatValue attack(GameCharacter target) {
+		// Notify the game.
+		EventBus events = getContext().getEvents();
+		if (events.wants(AttackMade.class))
+			events.publish(new AttackMade(this, target));
+		// Roll the damage dealt, including variance (+-25%).
+		StatValue damageDealt = rollDamage(getContext().getRandom().get(
+				GameRandom.Stream.COMBAT));
 		target.takeDamage(damageDealt, this);
 		return damageDealt;
 	}
 
+	/**
+	 * Rolls the damage dealt by a single attack, using this character's damage
+	 * roll and attack damage.
+	 *
+	 * @param random generator to draw the damage from.
+	 * @return the damage dealt by the attack.
+	 */
+	protected StatValue rollDamage(SplittableRandom random) {
+		return damageRoll.roll(getAttackDamage(), random);
+	}
+
 	// Health/mana based functions.
 
 	/**
@@ -129,14 +85,14 @@ public abstract class GameCharacter extends Entity {
 	 * @param amount amount of health to restore.
 	 * @param source entity that restored the health.
 	 */
-	public void restoreHealth(BigInteger amount, Entity source) {
+	public void restoreHealth(StatValue amount, Entity source) {
 		// Make sure the healing does not go above the max HP.
-		if (currHP.add(amount).compareTo(maxHP) == 1)
-			amount = maxHP.subtract(currHP);
-		// Update the view.
-		if (!silent)
-			view.displayMessage("The " + source + " gains " + amount
-					+ " health.");
+		if (currHP.add(amount).compareTo(getMaxHP()) > 0)
+			amount = getMaxHP().subtract(currHP);
+		// Notify the game.
+		EventBus events = getContext().getEvents();
+		if (events.wants(HealthRestored.class))
+			events.publish(new HealthRestored(source, this, amount));
 		// Add the health on to current health.
 		currHP = currHP.add(amount);
 
@@ -149,13 +105,14 @@ public abstract class GameCharacter extends Entity {
 	 * @param amount amount of damage to take.
 	 * @param source entity that caused the damage.
 	 */
-	public void takeDamage(BigInteger amount, Entity source) {
+	public void takeDamage(StatValue amount, Entity source) {
 		// Take the damage.
 		currHP = currHP.subtract(amount);
-		if (!silent)
-			view.displayMessage("The " + this + " takes " + amount + " damage.");
+		EventBus events = getContext().getEvents();
+		if (events.wants(DamageDealt.class))
+			events.publish(new DamageDealt(source, this, amount));
 		// Check for death.
-		if (currHP.compareTo(BigInteger.ZERO) != 1)
+		if (currHP.signum() <= 0)
 			die(source);
 	}
 
@@ -166,13 +123,14 @@ public abstract class GameCharacter extends Entity {
 	 * @param amount amount of mana to restore.
 	 * @param source entity that restored the mana.
 	 */
-	public void restoreMana(BigInteger amount, Entity source) {
+	public void restoreMana(StatValue amount, Entity source) {
 		// Make sure the healing does not go above the max HP.
-		if (currMana.add(amount).compareTo(maxMana) == 1)
-			amount = maxMana.subtract(currMana);
-		// Update the view.
-		if (!silent)
-			view.displayMessage("The " + source + " gains " + amount + " mana.");
+		if (currMana.add(amount).compareTo(getMaxMana()) > 0)
+			amount = getMaxMana().subtract(currMana);
+		// Notify the game.
+		EventBus events = getContext().getEvents();
+		if (events.wants(ManaRestored.class))
+			events.publish(new ManaRestored(source, this, amount));
 		// Add the health on to current health.
 		currMana = currMana.add(amount);
 
@@ -186,15 +144,16 @@ public abstract class GameCharacter extends Entity {
 	 * @param source entity that caused the reduction in mana.
 	 *
 	 */
-	public void spendMana(BigInteger amount, Entity source) {
+	public void spendMana(StatValue amount, Entity source) {
 		// Check that the mana is available.
-		if (currMana.compareTo(amount) == -1)
+		if (currMana.compareTo(amount) < 0)
 			throw new IllegalArgumentException(toString()
 					+ " attempted to spend " + amount + " mana when only "
 					+ currMana + " was available.");
-		// Update the view.
-		if (!silent)
-			view.displayMessage("The " + source + " loses " + amount + " mana.");
+		// Notify the game.
+		EventBus events = getContext().getEvents();
+		if (events.wants(ManaSpent.class))
+			events.publish(new ManaSpent(source, this, amount));
 		// Spend the mana.
 		currMana = currMana.subtract(amount);
 	}
@@ -204,36 +163,47 @@ public abstract class GameCharacter extends Entity {
 	/**
 	 * @return Current HP.
 	 */
-	public BigInteger getHP() {
+	public StatValue getHP() {
 		return currHP;
 	}
 
 	/**
 	 * @return maximum HP.
 	 */
-	public BigInteger getMaxHP() {
-		return maxHP;
-	}
+	public abstract StatValue getMaxHP();
 
 	/**
 	 * @return current Mana.
 	 */
-	public BigInteger getMana() {
+	public StatValue getMana() {
 		return currMana;
 	}
 
 	/**
 	 * @return maximum mana.
 	 */
-	public BigInteger getMaxMana() {
-		return maxMana;
+	public abstract StatValue getMaxMana();
+
+	/**
+	 * @return the damage dealt per attack.
+	 */
+	public abstract StatValue getAttackDamage();
+
+	/**
+	 * @return the roll used to determine the damage of each attack.
+	 */
+	public DamageRoll getDamageRoll() {
+		return damageRoll;
 	}
 
 	/**
-	 * @return the attackDamage
+	 * Sets the roll used to determine the damage of each attack, for example to
+	 * add critical hits.
+	 *
+	 * @param damageRoll the damage roll to be used.
 	 */
-	public BigInteger getAttackDamage() {
-		return attackDamage;
+	public void setDamageRoll(DamageRoll damageRoll) {
+		this.damageRoll = damageRoll;
 	}
 
 }
@@ -1,19 +1,18 @@
 package com.model.entity.npc;
 
-import java.math.BigInteger;
-
-import com.view.GUI;
+import com.utils.StatValue;
 
 /**
- * TODO: Write this doc after class is formed.
+ * A character fought by the player. The enemy's statistics come from a shared
+ * profile, so each enemy only holds its own health and mana.
  *
  * @author Christopher
  *
  */
 public class Enemy extends com.model.entity.GameCharacter {
 
-	/* Experience gained for defeating this Character. */
-	private BigInteger xpValue;
+	/* The profile describing this enemy, shared with others of its kind. */
+	private final EnemyProfile profile;
 
 	/**
 	 * Generates an enemy based on a specific profile. This should be
@@ -22,29 +21,48 @@ public class Enemy extends com.model.entity.GameCharacter {
 	 * @param profile the profile describing the enemy.
 	 */
 	public Enemy(EnemyProfile profile) {
-		super(profile.name, profile.maxHP, profile.maxMana,
-				profile.attackDamage);
-		this.xpValue = profile.xpValue;
+		super(profile.getName());
+		this.profile = profile;
+		currHP = profile.calculateInitialHP();
+		currMana = profile.calculateInitialMana();
 	}
 
 	/**
-	 * Generates an enemy based on a specific profile. This should be
-	 * pre-generated by the game engine.
-	 *
-	 * @param profile the profile describing the enemy.
-	 * @param view the GUI to send messages to.
+	 * @return the profile describing this enemy.
 	 */
-	public Enemy(EnemyProfile profile, GUI view) {
-		super(profile.name, view, profile.maxHP, profile.maxMana,
-				profile.attackDamage);
-		this.xpValue = profile.xpValue;
+	public EnemyProfile getProfile() {
+		return profile;
 	}
 
 	/**
 	 * @return the xp value of this enemy.
 	 */
-	public BigInteger getXPValue() {
-		return xpValue;
+	public StatValue getXPValue() {
+		return profile.getXPValue();
+	}
+
+	/**
+	 * @return maximum HP.
+	 */
+	@Override
+	public StatValue getMaxHP() {
+		return profile.getMaxHP();
+	}
+
+	/**
+	 * @return maximum mana.
+	 */
+	@Override
+	public StatValue getMaxMana() {
+		return profile.getMaxMana();
+	}
+
+	/**
+	 * @return the damage dealt per attack.
+	 */
+	@Override
+	public StatValue getAttackDamage() {
+		return profile.getAttackDamage();
 	}
 
 }
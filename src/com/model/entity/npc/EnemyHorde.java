@@ -0,0 +1,130 @@
+package com.model.entity.npc;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import com.model.entity.Entity;
+import com.model.event.DamageDealt;
+import com.model.event.EventBus;
+import com.utils.StatValue;
+import com.utils.StringUtils;
+
+/**
+ * A horde of identical enemies, sharing a single profile. Rather than holding
+ * one enemy per member, the horde stores how many members remain and the
+ * health of the member at the front, so a horde of any size costs the same to
+ * fight.
+ *
+ * Damage dealt to the horde is taken by the front member, and any damage left
+ * over after killing it moves on to the members behind. When the horde
+ * attacks, every member attacks at once, and the total damage is rolled in a
+ * single step. The xp value of a horde is that of a single member.
+ *
+ * @author Christopher
+ *
+ */
+public class EnemyHorde extends Enemy {
+
+	/* Number of members still alive, including the front member. */
+	private StatValue count;
+
+	/**
+	 * Generates a horde of the given number of enemies, all based on the same
+	 * profile.
+	 *
+	 * @param profile the profile describing each member of the horde.
+	 * @param count number of members in the horde. Must be at least 1.
+	 */
+	public EnemyHorde(EnemyProfile profile, StatValue count) {
+		super(profile);
+		if (count.signum() <= 0)
+			throw new IllegalArgumentException(
+					"A horde needs at least one member.");
+		this.count = count;
+	}
+
+	// Combat.
+
+	/**
+	 * Rolls the total damage dealt by every member of the horde attacking at
+	 * once.
+	 *
+	 * @param random generator to draw the damage from.
+	 * @return the total damage dealt by the horde.
+	 */
+	@Override
+	protected StatValue rollDamage(SplittableRandom random) {
+		return getDamageRoll().rollSum(getAttackDamage(), count, random);
+	}
+
+	/**
+	 * Causes the horde to take the given amount of damage. The front member
+	 * takes the damage first, and whatever is left after killing it kills as
+	 * many whole members as it can, and then wounds the next. Experience for
+	 * the members killed is registered with the source in one step, and the
+	 * horde dies with its last member.
+	 *
+	 * @param amount amount of damage to take.
+	 * @param source entity that caused the damage.
+	 */
+	@Override
+	public void takeDamage(StatValue amount, Entity source) {
+		EventBus events = getContext().getEvents();
+		if (events.wants(DamageDealt.class))
+			events.publish(new DamageDealt(source, this, amount));
+		if (amount.compareTo(currHP) < 0) {
+			currHP = currHP.subtract(amount);
+			return;
+		}
+		// The front member dies, and the rest of the damage spills over.
+		StatValue spare = amount.subtract(currHP);
+		StatValue killed = StatValue.ONE.add(spare.divide(getMaxHP()));
+		if (killed.compareTo(count) >= 0) {
+			// The whole horde is dead. The last member dies as normal.
+			if (count.compareTo(StatValue.ONE) > 0)
+				source.registerKills(this, count.subtract(StatValue.ONE));
+			count = StatValue.ONE;
+			currHP = StatValue.ZERO;
+			die(source);
+			return;
+		}
+		source.registerKills(this, killed);
+		count = count.subtract(killed);
+		// The new front member takes whatever damage is left.
+		StatValue maxHP = getMaxHP();
+		StatValue remainder = spare.subtract(maxHP.multiply(killed
+				.subtract(StatValue.ONE)));
+		currHP = maxHP.subtract(remainder).max(StatValue.ONE).min(maxHP);
+	}
+
+	// Accessor functions.
+
+	/**
+	 * @return the number of members of the horde still alive.
+	 */
+	public StatValue getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the total health of every member of the horde.
+	 */
+	public StatValue getTotalHP() {
+		return getMaxHP().multiply(count.subtract(StatValue.ONE)).add(currHP);
+	}
+
+	/**
+	 * @return a description of the horde, e.g. "horde of 100,000 goblins", or
+	 *         just the member's name if only one remains.
+	 */
+	@Override
+	public String toString() {
+		if (count.compareTo(StatValue.ONE) == 0)
+			return getProfile().getName();
+		String number = count.fitsInLong() ? String.format(Locale.ROOT,
+				"%,d", count.longValue()) : count.toString();
+		return "horde of " + number + " "
+				+ StringUtils.plural(getProfile().getName());
+	}
+
+}
@@ -1,70 +1,129 @@
 package com.model.entity.npc;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
+import com.utils.StatValue;
 
 /**
  * A profile for a generated enemy, with statistics, an ability list etc.
  *
- * This is effectively just an intermediary to keep the Enemy class clean.
+ * Profiles are immutable, so a single profile is shared by every enemy made
+ * from it, and each enemy holds only what changes during a fight. Profiles
+ * for each kind of enemy are kept in each game's EnemyRegistry.
  *
  * @author Christopher
  *
  */
-public class EnemyProfile {
+public final class EnemyProfile {
+
+	/* Enemy name, as displayed to the player. */
+	private final String name;
+	/* The amount of xp gained from slaying this foe. */
+	private final StatValue xpValue;
+	/* Enemy's attack damage dealt per hit. */
+	private final StatValue attackDamage;
+
+	/* Enemy initial health percentage as a decimal. */
+	private final double initialHPPct;
+	/* Enemy's maximum health value. */
+	private final StatValue maxHP;
+	/* Enemy initial mana percentage as a decimal. */
+	private final double initialManaPct;
+	/* Enemy's maximum mana value. */
+	private final StatValue maxMana;
 
 	/**
-	 * Enemy name, as displayed to the player.
+	 * Creates a profile for enemies starting with full health and mana.
+	 *
+	 * @param name enemy name, as displayed to the player.
+	 * @param xpValue the amount of xp gained from slaying this foe.
+	 * @param attackDamage enemy's attack damage dealt per hit.
+	 * @param maxHP enemy's maximum health value.
+	 * @param maxMana enemy's maximum mana value.
 	 */
-	public String name;
+	public EnemyProfile(String name, StatValue xpValue,
+			StatValue attackDamage, StatValue maxHP, StatValue maxMana) {
+		this(name, xpValue, attackDamage, maxHP, 1.0, maxMana, 1.0);
+	}
+
 	/**
-	 * The amount of xp gained from slaying this foe.
+	 * Creates a profile for enemies starting with the given fractions of their
+	 * health and mana.
+	 *
+	 * @param name enemy name, as displayed to the player.
+	 * @param xpValue the amount of xp gained from slaying this foe.
+	 * @param attackDamage enemy's attack damage dealt per hit.
+	 * @param maxHP enemy's maximum health value.
+	 * @param initialHPPct initial health percentage as a decimal, e.g. 1.0
+	 *            for 100%.
+	 * @param maxMana enemy's maximum mana value.
+	 * @param initialManaPct initial mana percentage as a decimal.
 	 */
-	public BigInteger xpValue;
+	public EnemyProfile(String name, StatValue xpValue,
+			StatValue attackDamage, StatValue maxHP, double initialHPPct,
+			StatValue maxMana, double initialManaPct) {
+		this.name = name;
+		this.xpValue = xpValue;
+		this.attackDamage = attackDamage;
+		this.maxHP = maxHP;
+		this.initialHPPct = initialHPPct;
+		this.maxMana = maxMana;
+		this.initialManaPct = initialManaPct;
+	}
+
 	/**
-	 * Enemy's attack damage dealt per hit.
+	 * Calculates the initial mana value based on the mana percentage stored.
+	 *
+	 * @return the initial mana value as StatValue
 	 */
-	public BigInteger attackDamage;
+	public StatValue calculateInitialMana() {
+		return initialManaPct == 1.0 ? maxMana : maxMana
+				.multiply(initialManaPct);
+	}
 
 	/**
-	 * Enemy initial health percentage as a decimal. Default is 1.0 (100%).
+	 * Calculates the initial health value based on the health percentage
+	 * stored.
+	 *
+	 * @return the initial health value as StatValue
 	 */
-	public double initialHPPct = 1.0;
+	public StatValue calculateInitialHP() {
+		return initialHPPct == 1.0 ? maxHP : maxHP.multiply(initialHPPct);
+	}
+
+	// Accessor functions.
+
 	/**
-	 * Enemy's maximum health value.
+	 * @return the enemy name, as displayed to the player.
 	 */
-	public BigInteger maxHP;
+	public String getName() {
+		return name;
+	}
+
 	/**
-	 * Enemy initial mana percentage as a decimal. Default is 1.0 (100%).
+	 * @return the amount of xp gained from slaying this foe.
 	 */
-	public double initialManaPct = 1.0;
+	public StatValue getXPValue() {
+		return xpValue;
+	}
+
 	/**
-	 * Enemy's maximum mana value.
+	 * @return the attack damage dealt per hit.
 	 */
-	public BigInteger maxMana;
+	public StatValue getAttackDamage() {
+		return attackDamage;
+	}
 
 	/**
-	 * Calculates the initial mana value based on the mana percentage stored.
-	 *
-	 * @return the initial mana value as BigInteger
+	 * @return the maximum health value.
 	 */
-	public BigInteger calculateInitialMana() {
-		// Convert to BigDecimal, multiply, and convert back.
-		BigDecimal max = new BigDecimal(maxMana);
-		max = max.multiply(new BigDecimal(initialManaPct));
-		return max.toBigInteger();
+	public StatValue getMaxHP() {
+		return maxHP;
 	}
 
 	/**
-	 * Calculates the initial health value based on the mana percentage stored.
-	 *
-	 * @return the initial health value as BigInteger
+	 * @return the maximum mana value.
 	 */
-	public BigInteger calculateInitialHP() {
-		// As above, so below.
-		BigDecimal max = new BigDecimal(maxHP);
-		max = max.multiply(new BigDecimal(initialHPPct));
-		return max.toBigInteger();
+	public StatValue getMaxMana() {
+		return maxMana;
 	}
 
 }
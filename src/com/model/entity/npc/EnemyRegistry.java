@@ -0,0 +1,74 @@
+package com.model.entity.npc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The profiles of every kind of enemy in a single game, scaled to each floor.
+ * Profiles for a floor are made together, the first time the floor is built,
+ * and are then shared by every enemy on the floor in a SpawnTable.
+ *
+ * Each game has its own registry, held by its context. Within the game, a
+ * floor's table is kept for as long as any layout of that floor is in use,
+ * such as the floor being explored and the one built ahead, and is forgotten
+ * once the last of them is released.
+ *
+ * @author Christopher
+ *
+ */
+public final class EnemyRegistry {
+
+	/* Spawn tables of the floors in use, by floor number. */
+	private final Map<Integer, SpawnTable> tables;
+	/* Number of layouts using each table, by floor number. */
+	private final Map<Integer, Integer> users;
+
+	/**
+	 * Creates an empty registry, for a new game.
+	 */
+	public EnemyRegistry() {
+		tables = new HashMap<Integer, SpawnTable>();
+		users = new HashMap<Integer, Integer>();
+	}
+
+	/**
+	 * Gets the shared spawn table of the given floor, creating it if need be.
+	 * The table is kept until it has been released as many times as it has
+	 * been acquired.
+	 *
+	 * @param floorNumber the floor number.
+	 * @return the floor's spawn table.
+	 */
+	public synchronized SpawnTable acquire(int floorNumber) {
+		users.merge(floorNumber, 1, Integer::sum);
+		return tables.computeIfAbsent(floorNumber, SpawnTable::new);
+	}
+
+	/**
+	 * Gives up one use of the given floor's table, forgetting the table once
+	 * nothing uses it. Enemies already holding its profiles are unaffected,
+	 * and the profiles will be made again if the floor is used later.
+	 *
+	 * @param floorNumber the floor number.
+	 */
+	public synchronized void release(int floorNumber) {
+		Integer count = users.get(floorNumber);
+		if (count == null)
+			return;
+		if (count > 1)
+			users.put(floorNumber, count - 1);
+		else {
+			users.remove(floorNumber);
+			tables.remove(floorNumber);
+		}
+	}
+
+	/**
+	 * @param floorNumber the floor number.
+	 * @return true if the floor's table is in use, and so is kept.
+	 */
+	public synchronized boolean isHeld(int floorNumber) {
+		return tables.containsKey(floorNumber);
+	}
+
+}
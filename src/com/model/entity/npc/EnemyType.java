@@ -0,0 +1,124 @@
+package com.model.entity.npc;
+
+import com.utils.StatValue;
+
+/**
+ * An enumeration of the kinds of enemy found in the dungeon. Each type gives
+ * its statistics on the first floor, how much stronger it grows with each
+ * floor, the first floor it is found on, how often it is found there and the
+ * most that are found together on the first floor.
+ *
+ * Statistics grow exponentially, multiplying by the type's growth rate for
+ * every floor past the first, so enemies keep pace with the player however
+ * deep the dungeon goes. Groups grow at the same rate, so deep floors are
+ * held by hordes of thousands.
+ *
+ * @author Christopher
+ *
+ */
+public enum EnemyType {
+
+	/**
+	 * A weak but common pest, found from the first floor.
+	 */
+	RAT("giant rat", 2, 8, 40, 0, 1.1, 1, 6, 3),
+
+	/**
+	 * The most common enemy, found on every floor.
+	 */
+	GOBLIN("goblin", 5, 20, 100, 100, 1.1, 1, 10, 2),
+
+	/**
+	 * A tougher, harder hitting relative of the goblin.
+	 */
+	ORC("orc", 15, 45, 250, 50, 1.1, 5, 5, 1),
+
+	/**
+	 * A rare, slow to die brute found only in the deeper floors.
+	 */
+	TROLL("troll", 60, 120, 800, 0, 1.1, 15, 2, 1);
+
+	/* Name of the enemy, as displayed to the player. */
+	private final String name;
+	/* Statistics on the first floor. */
+	private final StatValue xpValue;
+	private final StatValue attackDamage;
+	private final StatValue maxHP;
+	private final StatValue maxMana;
+	/* Power of ten each statistic is multiplied by for every floor. */
+	private final double growthPower;
+	/* First floor the enemy is found on, and its weight in spawn tables. */
+	private final int firstFloor;
+	private final int weight;
+	/* Most of the enemy found together on the first floor. */
+	private final StatValue groupSize;
+
+	private EnemyType(String name, long xpValue, long attackDamage,
+			long maxHP, long maxMana, double growth, int firstFloor,
+			int weight, long groupSize) {
+		this.name = name;
+		this.xpValue = StatValue.valueOf(xpValue);
+		this.attackDamage = StatValue.valueOf(attackDamage);
+		this.maxHP = StatValue.valueOf(maxHP);
+		this.maxMana = StatValue.valueOf(maxMana);
+		growthPower = Math.log10(growth);
+		this.firstFloor = firstFloor;
+		this.weight = weight;
+		this.groupSize = StatValue.valueOf(groupSize);
+	}
+
+	/**
+	 * Creates the profile of this enemy on the given floor, scaling each
+	 * statistic by the growth rate for every floor past the first.
+	 *
+	 * @param floorNumber the floor number.
+	 * @return the enemy's profile on the floor.
+	 */
+	public EnemyProfile createProfile(int floorNumber) {
+		double power = growthPower * Math.max(0, floorNumber - 1);
+		return new EnemyProfile(name, scale(xpValue, power), scale(
+				attackDamage, power), scale(maxHP, power), scale(maxMana,
+				power));
+	}
+
+	/**
+	 * Gets the most of this enemy found together on the given floor, growing
+	 * at the same rate as its statistics.
+	 *
+	 * @param floorNumber the floor number.
+	 * @return the largest group of the enemy on the floor.
+	 */
+	public StatValue createGroupSize(int floorNumber) {
+		return scale(groupSize, growthPower * Math.max(0, floorNumber - 1));
+	}
+
+	/* Multiplies a statistic by a power of ten, keeping it at least one. */
+	private static StatValue scale(StatValue value, double power) {
+		if (power == 0 || value.signum() == 0)
+			return value;
+		return value.multiplyByPowerOfTen(power).max(StatValue.ONE);
+	}
+
+	/**
+	 * @param floorNumber the floor number.
+	 * @return true if this enemy can be found on the floor.
+	 */
+	public boolean isFoundOn(int floorNumber) {
+		return Math.max(1, floorNumber) >= firstFloor;
+	}
+
+	/**
+	 * @return the first floor this enemy is found on.
+	 */
+	public int getFirstFloor() {
+		return firstFloor;
+	}
+
+	/**
+	 * @return how often this enemy is found, relative to the others.
+	 */
+	public int getWeight() {
+		return weight;
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.model.entity.npc;
+
+import java.util.SplittableRandom;
+
+import com.utils.StatValue;
+
+/**
+ * The enemies found on a single floor, with their profiles scaled to that
+ * floor. Profiles and group sizes are made once, when the table is created,
+ * so choosing enemies to place is a weighted draw and a roll of their number,
+ * with no scaling.
+ *
+ * Tables are shared through each game's EnemyRegistry, which keeps the table
+ * of each floor until the floor is left.
+ *
+ * @author Christopher
+ *
+ */
+public final class SpawnTable {
+
+	/* The floor this table is for. */
+	private final int floorNumber;
+	/* Profile of every type of enemy on this floor, by type ordinal. */
+	private final EnemyProfile[] profiles;
+	/* Most of each type of enemy found together, by type ordinal. */
+	private final StatValue[] groupSizes;
+	/* Types that may be chosen, and the running total of their weights. */
+	private final EnemyType[] choices;
+	private final int[] cumulativeWeights;
+
+	/**
+	 * Creates the table for the given floor, scaling the profile of every
+	 * type of enemy to it.
+	 *
+	 * @param floorNumber the floor number.
+	 */
+	SpawnTable(int floorNumber) {
+		this.floorNumber = floorNumber;
+		EnemyType[] types = EnemyType.values();
+		profiles = new EnemyProfile[types.length];
+		groupSizes = new StatValue[types.length];
+		int found = 0;
+		for (EnemyType type : types) {
+			profiles[type.ordinal()] = type.createProfile(floorNumber);
+			groupSizes[type.ordinal()] = type.createGroupSize(floorNumber);
+			if (type.isFoundOn(floorNumber) && type.getWeight() > 0)
+				found++;
+		}
+		if (found == 0)
+			throw new IllegalStateException("No enemies are found on floor "
+					+ floorNumber + ".");
+		choices = new EnemyType[found];
+		cumulativeWeights = new int[found];
+		int total = 0;
+		int i = 0;
+		for (EnemyType type : types)
+			if (type.isFoundOn(floorNumber) && type.getWeight() > 0) {
+				total += type.getWeight();
+				choices[i] = type;
+				cumulativeWeights[i++] = total;
+			}
+	}
+
+	/**
+	 * Chooses an enemy at random, weighted by how often each is found.
+	 *
+	 * @param random generator to draw the choice from.
+	 * @return the type of enemy chosen.
+	 */
+	public EnemyType pick(SplittableRandom random) {
+		int roll = random.nextInt(cumulativeWeights[choices.length - 1]);
+		int i = 0;
+		while (cumulativeWeights[i] <= roll)
+			i++;
+		return choices[i];
+	}
+
+	/**
+	 * Chooses how many of an enemy are found together, from one up to the
+	 * most found on this floor.
+	 *
+	 * @param type the type of enemy.
+	 * @param random generator to draw the number from.
+	 * @return the number of enemies found together.
+	 */
+	public StatValue pickCount(EnemyType type, SplittableRandom random) {
+		StatValue most = groupSizes[type.ordinal()];
+		return most.multiply(random.nextDouble()).add(StatValue.ONE).min(most);
+	}
+
+	/**
+	 * @param type the type of enemy.
+	 * @return the profile of the enemy, scaled to this floor.
+	 */
+	public EnemyProfile getProfile(EnemyType type) {
+		return profiles[type.ordinal()];
+	}
+
+	/**
+	 * @return the floor this table is for.
+	 */
+	public int getFloorNumber() {
+		return floorNumber;
+	}
+
+}
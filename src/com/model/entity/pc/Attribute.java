@@ -24,6 +24,9 @@ public enum Attribute {
 	 */
 	CONSTITUTION("CON");
 
+	/* Cached copy of values(), which clones its array on every call. */
+	private static final Attribute[] VALUES = values();
+
 	private String shortening;
 
 	private Attribute(String shortening) {
@@ -36,4 +39,22 @@ public enum Attribute {
 	public String getShortening() {
 		return shortening;
 	}
+
+	/**
+	 * Gets the attribute with the given ordinal, without copying the array of
+	 * values.
+	 *
+	 * @param ordinal the ordinal of the attribute.
+	 * @return the attribute with that ordinal.
+	 */
+	public static Attribute fromOrdinal(int ordinal) {
+		return VALUES[ordinal];
+	}
+
+	/**
+	 * @return the number of attributes.
+	 */
+	public static int count() {
+		return VALUES.length;
+	}
 }
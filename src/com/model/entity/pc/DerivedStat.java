@@ -0,0 +1,46 @@
+package com.model.entity.pc;
+
+/**
+ * An enumeration of player statistics that are derived from an attribute,
+ * rather than being stored directly. Each is a multiple of its attribute, and
+ * may be further adjusted by modifiers from equipment or effects.
+ *
+ * @author Christopher
+ *
+ */
+public enum DerivedStat {
+	/**
+	 * Attack damage is twice strength.
+	 */
+	ATTACK_DAMAGE(Attribute.STRENGTH, 2),
+	/**
+	 * Maximum HP is ten times constitution.
+	 */
+	MAX_HP(Attribute.CONSTITUTION, 10),
+	/**
+	 * Maximum mana is ten times wisdom.
+	 */
+	MAX_MANA(Attribute.WISDOM, 10);
+
+	private Attribute attribute;
+	private int multiplier;
+
+	private DerivedStat(Attribute attribute, int multiplier) {
+		this.attribute = attribute;
+		this.multiplier = multiplier;
+	}
+
+	/**
+	 * @return the attribute this statistic is derived from.
+	 */
+	public Attribute getAttribute() {
+		return attribute;
+	}
+
+	/**
+	 * @return the amount the attribute is multiplied by, before modifiers.
+	 */
+	public int getMultiplier() {
+		return multiplier;
+	}
+}
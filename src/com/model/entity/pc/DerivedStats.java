@@ -0,0 +1,87 @@
+package com.model.entity.pc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.utils.StatValue;
+
+/**
+ * A cache of a player's derived statistics. Each statistic is computed from
+ * its attribute and modifiers only when it is requested after something it
+ * depends on has changed. Changing an attribute or modifier only invalidates
+ * the statistics that depend on it.
+ *
+ * @author Christopher
+ *
+ */
+final class DerivedStats {
+
+	/* Cached copy of values(), which clones its array on every call. */
+	private static final DerivedStat[] STATS = DerivedStat.values();
+
+	/* The attribute values of the owning player, by Attribute ordinal. */
+	private final StatValue[] attributes;
+
+	/* Cached values, by DerivedStat ordinal. */
+	private final StatValue[] values;
+	/* Bitmask of statistics whose cached values are out of date. */
+	private int dirty;
+	/* Active modifiers, by DerivedStat ordinal. */
+	private final List<List<StatModifier>> modifiers;
+
+	/*
+	 * Creates a cache for the given attribute array. The array is shared, so
+	 * attributeChanged must be called whenever an element is replaced.
+	 */
+	DerivedStats(StatValue[] attributes) {
+		this.attributes = attributes;
+		values = new StatValue[STATS.length];
+		dirty = (1 << STATS.length) - 1;
+		modifiers = new ArrayList<List<StatModifier>>(STATS.length);
+		for (int i = 0; i < STATS.length; i++)
+			modifiers.add(new ArrayList<StatModifier>());
+	}
+
+	/* Gets the current value of a statistic, recomputing it if needed. */
+	StatValue get(DerivedStat stat) {
+		int bit = 1 << stat.ordinal();
+		if ((dirty & bit) != 0) {
+			values[stat.ordinal()] = compute(stat);
+			dirty &= ~bit;
+		}
+		return values[stat.ordinal()];
+	}
+
+	/* Invalidates every statistic derived from the given attribute. */
+	void attributeChanged(Attribute att) {
+		for (DerivedStat stat : STATS)
+			if (stat.getAttribute() == att)
+				dirty |= 1 << stat.ordinal();
+	}
+
+	/* Adds a modifier, invalidating the statistic it affects. */
+	void addModifier(StatModifier modifier) {
+		modifiers.get(modifier.getStat().ordinal()).add(modifier);
+		dirty |= 1 << modifier.getStat().ordinal();
+	}
+
+	/* Removes a modifier, returning true if it was present. */
+	boolean removeModifier(StatModifier modifier) {
+		if (!modifiers.get(modifier.getStat().ordinal()).remove(modifier))
+			return false;
+		dirty |= 1 << modifier.getStat().ordinal();
+		return true;
+	}
+
+	/* Computes a statistic from its attribute and modifiers. */
+	private StatValue compute(DerivedStat stat) {
+		StatValue value = attributes[stat.getAttribute().ordinal()]
+				.multiply(stat.getMultiplier());
+		for (StatModifier modifier : modifiers.get(stat.ordinal())) {
+			if (modifier.getMultiplier() != 1)
+				value = value.multiply(modifier.getMultiplier());
+			value = value.add(modifier.getBonus());
+		}
+		return value.max(StatValue.ZERO);
+	}
+}
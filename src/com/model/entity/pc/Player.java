@@ -1,14 +1,17 @@
 package com.model.entity.pc;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.SplittableRandom;
 
+import com.model.GameRandom;
 import com.model.entity.Entity;
 import com.model.entity.npc.Enemy;
-import com.utils.StringUtils;
-import com.view.GUI;
+import com.model.event.EnemyKilled;
+import com.model.event.EventBus;
+import com.model.event.LevelUp;
+import com.model.event.MembersKilled;
+import com.model.event.PlayerDied;
+import com.model.event.XpGained;
+import com.utils.StatValue;
 import com.view.images.MiscImage;
 
 /**
@@ -20,15 +23,33 @@ import com.view.images.MiscImage;
  */
 public class Player extends com.model.entity.GameCharacter {
 
+	/* Levels gained at once that are always applied one at a time. */
+	private static final int EXACT_LEVELS = 16;
+	/* Attributes above this value are no longer affected by rounding. */
+	private static final StatValue ROUNDING_LIMIT = StatValue.valueOf(1 << 20);
+	/* Mean and variance of log10(1 + m), for m uniform in [0.15, 0.35]. */
+	private static final double GROWTH_LOG_MEAN;
+	private static final double GROWTH_LOG_VARIANCE;
+
+	static {
+		// Integrate ln(x) and ln(x)^2 over [1.15, 1.35], with density 5.
+		double low = 1.15, high = 1.35;
+		double mean = 5 * (logIntegral(high) - logIntegral(low));
+		double square = 5 * (squareLogIntegral(high) - squareLogIntegral(low));
+		// Convert from natural to base ten logarithms.
+		GROWTH_LOG_MEAN = mean / Math.log(10);
+		GROWTH_LOG_VARIANCE = (square - mean * mean) / Math.pow(Math.log(10), 2);
+	}
+
 	/* Current amount of xp. */
-	private BigInteger xp;
-	/* xp until next level */
-	private BigInteger xpToLevel;
+	private StatValue xp;
 
 	/* Current power level. Increases by 1 whenever xp reaches the cap. */
-	private BigInteger level;
-	/* A map of stats to their values. */
-	private Map<Attribute, BigInteger> attributes;
+	private long level;
+	/* Attribute values, indexed by Attribute ordinal. */
+	private StatValue[] attributes;
+	/* Cache of statistics derived from the attributes. */
+	private DerivedStats derivedStats;
 	/* The class that the player is playing as. */
 	private PlayerClass playerClass;
 
@@ -47,39 +68,22 @@ public class Player extends com.model.entity.GameCharacter {
 		initPlayer(playerClass);
 	}
 
-	/**
-	 * Initialises a player based on a specified player class, that sends
-	 * notifications to a specified GUI.
-	 *
-	 * Initial stats will be set to 10* modifier value.
-	 *
-	 * @param playerClass RPG Class that the player has selected. Influences
-	 *            initial attributes and spell selection.
-	 * @param view a reference to the interface, to be passed messages whenever
-	 *            the player's status changes in any way.
-	 */
-	public Player(PlayerClass playerClass, GUI view) {
-		super("player", view);
-		initPlayer(playerClass);
-	}
-
 	/* Sets up starting stats and attributes. */
 	private void initPlayer(PlayerClass playerClass) {
 		// Set the player information.
 		this.playerClass = playerClass;
 
 		// Get initial stats from PlayerClass..
-		Map<Attribute, Integer> classAttributes = playerClass
-				.getBaseAttributes();
-		attributes = new HashMap<Attribute, BigInteger>();
-		for (Attribute stat : classAttributes.keySet())
-			attributes.put(stat, BigInteger.valueOf(classAttributes.get(stat)));
+		attributes = new StatValue[Attribute.count()];
+		for (int i = 0; i < attributes.length; i++)
+			attributes[i] = StatValue.valueOf(playerClass
+					.getBaseAttribute(Attribute.fromOrdinal(i)));
+		derivedStats = new DerivedStats(attributes);
 		updateHealthAndMana();
 
 		// Set XP, XP to level, and level.
-		xp = BigInteger.ZERO;
-		level = BigInteger.ONE;
-		xpToLevel = BigInteger.TEN;
+		xp = StatValue.ZERO;
+		level = 1;
 	}
 
 	// Killing and dying based functions.
@@ -93,9 +97,10 @@ public class Player extends com.model.entity.GameCharacter {
 	@Override
 	public void die(Entity source) {
 		super.die(source);
-		if (!silent)
-			view.displayMessage("THE PLAYER IS DEAD. LONG LIVE THE PLAYER");
-		currHP = maxHP; // Flavour. TODO: Implement death.
+		EventBus events = getContext().getEvents();
+		if (events.wants(PlayerDied.class))
+			events.publish(new PlayerDied(this, source));
+		currHP = getMaxHP(); // Flavour. TODO: Implement death.
 	}
 
 	/**
@@ -108,84 +113,181 @@ public class Player extends com.model.entity.GameCharacter {
 	public void registerKill(Entity target) {
 		// Check to see if an enemy was killed.
 		if (target instanceof Enemy) {
-			// If so, grant xp and notify the view.
+			// If so, grant xp and notify the game.
 			Enemy enemy = (Enemy) target;
-			if (!silent)
-				view.displayMessage("The " + enemy + " was killed.");
+			EventBus events = getContext().getEvents();
+			if (events.wants(EnemyKilled.class))
+				events.publish(new EnemyKilled(this, enemy));
 			gainXp(enemy.getXPValue());
 		}
 	}
 
+	/**
+	 * Registers killing off several members of a group. If the group is made
+	 * of enemies, experience is awarded for every member killed, in one step.
+	 *
+	 * @param target group whose members were killed off.
+	 * @param count number of members killed.
+	 */
+	@Override
+	public void registerKills(Entity target, StatValue count) {
+		if (target instanceof Enemy) {
+			Enemy enemy = (Enemy) target;
+			EventBus events = getContext().getEvents();
+			if (events.wants(MembersKilled.class))
+				events.publish(new MembersKilled(this, enemy, count));
+			gainXp(enemy.getXPValue().multiply(count));
+		}
+	}
+
 	// Experience/level based functions.
 
 	/**
-	 * Increases the player's current xp score by the amount specified.
+	 * Increases the player's current xp score by the amount specified. If this
+	 * is enough to gain one or more levels, the player levels up, and any
+	 * excess xp is carried over towards the next level.
 	 *
 	 * @param amount Amount of xp to be added.
 	 */
-	public void gainXp(BigInteger amount) {
+	public void gainXp(StatValue amount) {
 		// Increase the xp value.
 		xp = xp.add(amount);
-		// Notify the view.
-		if (!silent)
-			view.displayMessage("You gain " + amount + "xp.");
+		// Notify the game.
+		EventBus events = getContext().getEvents();
+		if (events.wants(XpGained.class))
+			events.publish(new XpGained(this, amount));
 		// Check for level up.
-		if (xp.compareTo(xpToLevel) != -1)
-			levelUp();
+		if (xp.compareTo(getXPToNextLevel()) < 0)
+			return;
+		// Find the level reached by the total xp earned, in one step.
+		StatValue totalXp = getTotalXP();
+		long newLevel = Math.max(level + 1, XpCurve.STANDARD.getLevel(totalXp));
+		levelUp(newLevel - level);
+		// Carry over the excess, which may be approximate for huge values.
+		xp = totalXp.subtract(XpCurve.STANDARD.getTotalXp(level))
+				.max(StatValue.ZERO)
+				.min(getXPToNextLevel().subtract(StatValue.ONE));
 	}
 
 	/**
 	 * Increases the player's level by 1, updating player attributes by 15-35%
-	 * at random. Also resets the player's xp to 0, and increases xpToLevel by
-	 * 25%.
+	 * at random. Also resets the player's xp to 0. The xp needed for the next
+	 * level follows the XpCurve, increasing by 25%.
 	 */
 	public void levelUp() {
-		// Notify the View.
-		if (!silent)
-			view.displayMessage("\nYou have reached level "
-					+ level.add(BigInteger.ONE) + "!");
-		// Increase stats pseudorandomly by 15-35% each.
-		for (Attribute stat : attributes.keySet()) {
-			// Stat multiplier is between 0.15 and 0.35.
-			double multiplier = 0.15 + Math.random() * 0.2;
-			// Get the stat value from the map.
-			BigDecimal increase = new BigDecimal(attributes.get(stat));
-			// Multiply it by the multiplier.
-			increase = increase.multiply(BigDecimal.valueOf(multiplier));
-			// Add 0.5 to ensure stat rounds correctly.
-			increase = increase.add(BigDecimal.valueOf(0.5));
-			// Convert to BigInteger.
-			BigInteger intIncrease = increase.toBigInteger();
-			// Update the view.
-			if (!silent)
-				view.displayMessage(StringUtils.titleCase(stat.toString())
-						+ " was increased by " + intIncrease);
-			// Update the map.
-			attributes.put(stat, attributes.get(stat).add(intIncrease));
+		levelUp(1);
+	}
+
+	/**
+	 * Increases the player's level by the given number of levels, compounding
+	 * the 15-35% random increase in each attribute for every level gained. The
+	 * growth is applied in bulk, but follows the same distribution as levelling
+	 * up one level at a time. Also resets the player's xp to 0. The xp needed
+	 * for the next level follows the XpCurve.
+	 *
+	 * @param levels number of levels to gain.
+	 */
+	public void levelUp(long levels) {
+		if (levels < 1)
+			throw new IllegalArgumentException("Must gain at least one level.");
+		// Increase stats pseudorandomly by 15-35% each, per level.
+		SplittableRandom random = getContext().getRandom().get(
+				GameRandom.Stream.LEVEL_UP);
+		StatValue[] increases = new StatValue[attributes.length];
+		for (int i = 0; i < attributes.length; i++) {
+			StatValue grown = growAttribute(attributes[i], levels, random);
+			increases[i] = grown.subtract(attributes[i]);
+			attributes[i] = grown;
+			derivedStats.attributeChanged(Attribute.fromOrdinal(i));
 		}
 
-		// Update health, mana and xp to level.
+		// Done, set level as increased.
+		level += levels;
+		xp = StatValue.ZERO;
+
+		// Update health and mana.
 		updateHealthAndMana();
-		xpToLevel = xpToLevel.add(xpToLevel.divide(BigInteger.valueOf(4)));
 
-		// Done, set level as increased.
-		level = level.add(BigInteger.ONE);
-		xp = BigInteger.ZERO;
+		// Notify the game.
+		EventBus events = getContext().getEvents();
+		if (events.wants(LevelUp.class))
+			events.publish(new LevelUp(this, level, increases));
+	}
 
-		// Seperate the level up text from standard text with a line break.
-		if (!silent)
-			view.displayMessage("");
+	/*
+	 * Applies the given number of levels of growth to an attribute. While the
+	 * attribute is small, rounding each level's increase matters, so levels
+	 * are applied one at a time. Once it is large, the total growth is the
+	 * product of many independent random factors, so the sum of their
+	 * logarithms is drawn from the matching normal distribution instead.
+	 */
+	private static StatValue growAttribute(StatValue value, long levels,
+			SplittableRandom random) {
+		while (levels > 0
+				&& (levels <= EXACT_LEVELS || value.compareTo(ROUNDING_LIMIT) < 0)) {
+			// Stat multiplier is between 0.15 and 0.35.
+			double multiplier = 0.15 + random.nextDouble() * 0.2;
+			// Multiply the stat value by the multiplier, rounding correctly.
+			value = value.add(value.multiplyRounded(multiplier));
+			levels--;
+		}
+		if (levels == 0)
+			return value;
+		double growth = levels * GROWTH_LOG_MEAN
+				+ Math.sqrt(levels * GROWTH_LOG_VARIANCE)
+				* GameRandom.nextGaussian(random);
+		return value.multiplyByPowerOfTen(growth);
 	}
 
 	/*
-	 * Sets current and maximum HP to 10x constitution, and current and maximum
-	 * mana to 10x Wisdom
+	 * Restores current HP and mana to their maximums, which are 10x
+	 * constitution and 10x Wisdom respectively, plus any modifiers.
 	 */
 	private void updateHealthAndMana() {
-		maxHP = attributes.get(Attribute.CONSTITUTION).multiply(BigInteger.TEN);
-		currHP = maxHP;
-		maxMana = attributes.get(Attribute.WISDOM).multiply(BigInteger.TEN);
-		currMana = maxMana;
+		currHP = getMaxHP();
+		currMana = getMaxMana();
+	}
+
+	// Modifiers.
+
+	/**
+	 * Adds a modifier to one of the player's derived statistics, such as from
+	 * equipment or an effect. Only the modified statistic is recalculated.
+	 *
+	 * @param modifier modifier to be added.
+	 */
+	public void addModifier(StatModifier modifier) {
+		derivedStats.addModifier(modifier);
+		clampHealthAndMana();
+	}
+
+	/**
+	 * Removes a modifier previously added to the player.
+	 *
+	 * @param modifier modifier to be removed.
+	 * @return true if the modifier was active, otherwise false.
+	 */
+	public boolean removeModifier(StatModifier modifier) {
+		boolean removed = derivedStats.removeModifier(modifier);
+		clampHealthAndMana();
+		return removed;
+	}
+
+	/* Makes sure current HP and mana do not exceed their maximums. */
+	private void clampHealthAndMana() {
+		currHP = currHP.min(getMaxHP());
+		currMana = currMana.min(getMaxMana());
+	}
+
+	/* Antiderivative of ln(x). */
+	private static double logIntegral(double x) {
+		return x * Math.log(x) - x;
+	}
+
+	/* Antiderivative of ln(x)^2. */
+	private static double squareLogIntegral(double x) {
+		double log = Math.log(x);
+		return x * (log * log - 2 * log + 2);
 	}
 
 	// Accessor functions.
@@ -203,8 +305,17 @@ public class Player extends com.model.entity.GameCharacter {
 	 * @param att attribute to be got.
 	 * @return the attribute value of the specified attribute.
 	 */
-	public BigInteger getAttributeValue(Attribute att) {
-		return attributes.get(att);
+	public StatValue getAttributeValue(Attribute att) {
+		return attributes[att.ordinal()];
+	}
+
+	/**
+	 * Gets the current values of all attributes at once.
+	 *
+	 * @return a copy of the attribute values, indexed by Attribute ordinal.
+	 */
+	public StatValue[] getAttributeValues() {
+		return attributes.clone();
 	}
 
 	/**
@@ -212,30 +323,54 @@ public class Player extends com.model.entity.GameCharacter {
 	 *         Strength, plus any modifiers currently active.
 	 */
 	@Override
-	public BigInteger getAttackDamage() {
-		return attributes.get(Attribute.STRENGTH).multiply(
-				BigInteger.valueOf(2));
+	public StatValue getAttackDamage() {
+		return derivedStats.get(DerivedStat.ATTACK_DAMAGE);
+	}
+
+	/**
+	 * @return the maximum HP of the player. This is equal to ten times their
+	 *         Constitution, plus any modifiers currently active.
+	 */
+	@Override
+	public StatValue getMaxHP() {
+		return derivedStats.get(DerivedStat.MAX_HP);
+	}
+
+	/**
+	 * @return the maximum mana of the player. This is equal to ten times their
+	 *         Wisdom, plus any modifiers currently active.
+	 */
+	@Override
+	public StatValue getMaxMana() {
+		return derivedStats.get(DerivedStat.MAX_MANA);
 	}
 
 	/**
 	 * @return the player's current level.
 	 */
-	public BigInteger getLevel() {
+	public long getLevel() {
 		return level;
 	}
 
 	/**
 	 * @return the current amount of xp gained since the previous level.
 	 */
-	public BigInteger getCurrentXP() {
+	public StatValue getCurrentXP() {
 		return xp;
 	}
 
 	/**
 	 * @return the total xp needed to level up from 0 xp.
 	 */
-	public BigInteger getXPToNextLevel() {
-		return xpToLevel;
+	public StatValue getXPToNextLevel() {
+		return XpCurve.STANDARD.getXpToNextLevel(level);
+	}
+
+	/**
+	 * @return the total xp gained since level 1.
+	 */
+	public StatValue getTotalXP() {
+		return XpCurve.STANDARD.getTotalXp(level).add(xp);
 	}
 
 	/**
@@ -1,6 +1,7 @@
 package com.model.entity.pc;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
 
 /**
@@ -29,24 +30,43 @@ public enum PlayerClass {
 	 */
 	ROGUE(12, 12, 12, 12);
 
+	/* Base attribute values, indexed by Attribute ordinal. */
+	private int[] baseValues;
+	/* Read-only map view of the base attributes. */
 	private Map<Attribute, Integer> baseAttributes;
 
 	private PlayerClass(int strength, int intellect, int wisdom,
 			int constitution) {
-		baseAttributes = new HashMap<Attribute, Integer>();
-		baseAttributes.put(Attribute.STRENGTH, strength);
-		baseAttributes.put(Attribute.INTELLIGENCE, intellect);
-		baseAttributes.put(Attribute.WISDOM, wisdom);
-		baseAttributes.put(Attribute.CONSTITUTION, constitution);
+		baseValues = new int[Attribute.count()];
+		baseValues[Attribute.STRENGTH.ordinal()] = strength;
+		baseValues[Attribute.INTELLIGENCE.ordinal()] = intellect;
+		baseValues[Attribute.WISDOM.ordinal()] = wisdom;
+		baseValues[Attribute.CONSTITUTION.ordinal()] = constitution;
+		Map<Attribute, Integer> map = new EnumMap<Attribute, Integer>(
+				Attribute.class);
+		for (int i = 0; i < baseValues.length; i++)
+			map.put(Attribute.fromOrdinal(i), baseValues[i]);
+		baseAttributes = Collections.unmodifiableMap(map);
 	}
 
 	/**
 	 * Gets a map of the base attributes of the chosen class.
 	 *
-	 * @return A map of Attribute to Integer for each of the base Attributes.
+	 * @return A read-only map of Attribute to Integer for each of the base
+	 *         Attributes.
 	 */
 	public Map<Attribute, Integer> getBaseAttributes() {
 		return baseAttributes;
 	}
 
+	/**
+	 * Gets the base value of a single attribute of the chosen class.
+	 *
+	 * @param att attribute to be got.
+	 * @return the base value of the attribute.
+	 */
+	public int getBaseAttribute(Attribute att) {
+		return baseValues[att.ordinal()];
+	}
+
 }
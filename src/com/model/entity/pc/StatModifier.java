@@ -0,0 +1,64 @@
+package com.model.entity.pc;
+
+import com.utils.StatValue;
+
+/**
+ * A modifier to a derived statistic, such as from a piece of equipment or a
+ * temporary effect. The statistic is multiplied by the modifier's multiplier,
+ * and then has its bonus added. Modifiers are immutable, and are added to and
+ * removed from a player as a whole.
+ *
+ * @author Christopher
+ *
+ */
+public final class StatModifier {
+
+	private final DerivedStat stat;
+	private final double multiplier;
+	private final StatValue bonus;
+
+	/**
+	 * Creates a modifier to the given statistic.
+	 *
+	 * @param stat statistic to be modified.
+	 * @param multiplier amount to multiply the statistic by, e.g. 1.1 for 10%
+	 *            more.
+	 * @param bonus flat amount added to the statistic after multiplying.
+	 */
+	public StatModifier(DerivedStat stat, double multiplier, StatValue bonus) {
+		this.stat = stat;
+		this.multiplier = multiplier;
+		this.bonus = bonus;
+	}
+
+	/**
+	 * Creates a modifier that adds a flat amount to the given statistic.
+	 *
+	 * @param stat statistic to be modified.
+	 * @param bonus flat amount added to the statistic.
+	 */
+	public StatModifier(DerivedStat stat, StatValue bonus) {
+		this(stat, 1, bonus);
+	}
+
+	/**
+	 * @return the statistic that is modified.
+	 */
+	public DerivedStat getStat() {
+		return stat;
+	}
+
+	/**
+	 * @return the amount the statistic is multiplied by.
+	 */
+	public double getMultiplier() {
+		return multiplier;
+	}
+
+	/**
+	 * @return the flat amount added to the statistic.
+	 */
+	public StatValue getBonus() {
+		return bonus;
+	}
+}
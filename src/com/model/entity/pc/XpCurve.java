@@ -0,0 +1,195 @@
+package com.model.entity.pc;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.utils.StatValue;
+
+/**
+ * The experience curve, mapping between levels and the total xp needed to
+ * reach them from level 1. The first level needs 10 xp, and each level after
+ * needs a quarter more than the one before, rounded down: 10, 12, 15, 18, 22
+ * and so on.
+ *
+ * Rounding makes each step depend on the last, so thresholds are worked out
+ * exactly, one level at a time, for as long as they have fewer digits than
+ * the StatValue precision, up to a fixed limit. Past that, the rounding no
+ * longer shows, and the curve carries on from the last exact step as a
+ * geometric series, growing 25% per level.
+ *
+ * Thresholds are built lazily in fixed-size chunks of levels, and cached, so
+ * the table can grow without bound while only holding the levels that have
+ * actually been asked about. Lookups in either direction take O(log n) time.
+ * The curve is safe to use from multiple threads.
+ *
+ * @author Christopher
+ *
+ */
+public final class XpCurve {
+
+	/**
+	 * The xp curve used by all players.
+	 */
+	public static final XpCurve STANDARD = new XpCurve();
+
+	/* Each chunk holds 2^CHUNK_BITS consecutive levels. */
+	private static final int CHUNK_BITS = 8;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+	/* Xp needed for the first level. */
+	private static final BigInteger FIRST_STEP = BigInteger.TEN;
+	/* Most digits thresholds are worked out exactly to, at any precision. */
+	private static final int MAX_EXACT_DIGITS = 1000;
+	/* Sum of the steps of a series growing 25% per level, per first step. */
+	private static final BigInteger GROWTH_SUM = BigInteger.valueOf(4);
+	/* The curve without rounding, 40 * 1.25^n - 40, for estimating levels. */
+	private static final double LOG10_XP_BASE = Math.log10(40);
+	private static final double LOG10_XP_GROWTH = Math.log10(1.25);
+	private static final StatValue XP_OFFSET = StatValue.valueOf(40);
+	/* log10(2), used to estimate the number of digits in a BigInteger. */
+	private static final double LOG10_2 = Math.log10(2);
+
+	/* Built chunks of total xp thresholds, by chunk index. */
+	private final Map<Long, StatValue[]> chunks;
+	/*
+	 * The exact thresholds, for the precision the cached chunks were built at,
+	 * or null if none have been built.
+	 */
+	private volatile ExactLevels exact;
+
+	private XpCurve() {
+		chunks = new ConcurrentHashMap<Long, StatValue[]>();
+	}
+
+	// Lookups.
+
+	/**
+	 * Gets the total xp needed to reach the given level from level 1.
+	 *
+	 * @param level level to be reached. Must be at least 1.
+	 * @return the total xp needed to reach the level.
+	 */
+	public StatValue getTotalXp(long level) {
+		if (level < 1)
+			throw new IllegalArgumentException("Levels start at 1.");
+		long index = level - 1;
+		return getChunk(index >>> CHUNK_BITS)[(int) (index & (CHUNK_SIZE - 1))];
+	}
+
+	/**
+	 * Gets the amount of xp needed to go from the given level to the next.
+	 *
+	 * @param level the current level.
+	 * @return the xp needed to reach the next level.
+	 */
+	public StatValue getXpToNextLevel(long level) {
+		return getTotalXp(level + 1).subtract(getTotalXp(level));
+	}
+
+	/**
+	 * Gets the highest level reached by the given total xp.
+	 *
+	 * @param totalXp total xp earned since level 1.
+	 * @return the level reached.
+	 */
+	public long getLevel(StatValue totalXp) {
+		if (totalXp.signum() <= 0)
+			return 1;
+		// Invert the curve with logarithms to find the right chunk.
+		double log = totalXp.add(XP_OFFSET).log10();
+		long estimate = Math.max(0,
+				(long) ((log - LOG10_XP_BASE) / LOG10_XP_GROWTH));
+		long chunkIndex = estimate >>> CHUNK_BITS;
+		// The estimate can be slightly off, so check the neighbouring chunks.
+		while (true) {
+			StatValue[] chunk = getChunk(chunkIndex);
+			int position = Arrays.binarySearch(chunk, totalXp);
+			// Find the last threshold not exceeding the total xp.
+			if (position < 0)
+				position = -position - 2;
+			if (position < 0 && chunkIndex > 0)
+				chunkIndex--;
+			else if (position == CHUNK_SIZE - 1
+					&& getTotalXp(((chunkIndex + 1) << CHUNK_BITS) + 1)
+							.compareTo(totalXp) <= 0)
+				chunkIndex++;
+			else
+				return (chunkIndex << CHUNK_BITS) + Math.max(0, position) + 1;
+		}
+	}
+
+	// Table construction.
+
+	/* Gets a chunk of thresholds, building it if needed. */
+	private StatValue[] getChunk(long chunkIndex) {
+		// Values built at a different precision would be inconsistent.
+		ExactLevels levels = exact;
+		if (levels == null || levels.precision != StatValue.getPrecision()) {
+			chunks.clear();
+			levels = new ExactLevels(StatValue.getPrecision());
+			exact = levels;
+		}
+		ExactLevels built = levels;
+		return chunks.computeIfAbsent(chunkIndex,
+				index -> buildChunk(built, index));
+	}
+
+	/* Builds the thresholds for a chunk of levels. */
+	private static StatValue[] buildChunk(ExactLevels levels, long chunkIndex) {
+		StatValue[] chunk = new StatValue[CHUNK_SIZE];
+		long first = chunkIndex << CHUNK_BITS;
+		for (int i = 0; i < CHUNK_SIZE; i++)
+			chunk[i] = levels.getTotalXp(first + i);
+		return chunk;
+	}
+
+	/*
+	 * The thresholds of the levels worked out exactly at a precision, and the
+	 * series the curve follows past them.
+	 */
+	private static final class ExactLevels {
+
+		/* The precision the thresholds were worked out at. */
+		private final int precision;
+		/* Total xp to reach each exact level, by level - 1. */
+		private final StatValue[] totals;
+		/*
+		 * Past the exact levels, the total after k more levels is
+		 * base * 1.25^k + offset.
+		 */
+		private final StatValue base;
+		private final StatValue offset;
+
+		ExactLevels(int precision) {
+			this.precision = precision;
+			int digits = Math.min(precision, MAX_EXACT_DIGITS);
+			List<StatValue> exactTotals = new ArrayList<StatValue>();
+			BigInteger total = BigInteger.ZERO;
+			BigInteger step = FIRST_STEP;
+			while (total.bitLength() * LOG10_2 < digits - 1) {
+				exactTotals.add(StatValue.valueOf(total));
+				total = total.add(step);
+				step = step.add(step.shiftRight(2));
+			}
+			totals = exactTotals.toArray(new StatValue[exactTotals.size()]);
+			// Summing steps of step * 1.25^j gives 4 * step * (1.25^k - 1).
+			BigInteger scaled = step.multiply(GROWTH_SUM);
+			base = StatValue.valueOf(scaled);
+			offset = StatValue.valueOf(total.subtract(scaled));
+		}
+
+		/* Gets the total xp needed to reach level n + 1. */
+		StatValue getTotalXp(long n) {
+			if (n < totals.length)
+				return totals[(int) n];
+			double power = (n - totals.length) * LOG10_XP_GROWTH;
+			return base.multiplyByPowerOfTen(power).add(offset);
+		}
+
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.model.event;
+
+import com.model.entity.GameCharacter;
+
+/**
+ * Published when a character attacks another.
+ *
+ * @author Christopher
+ *
+ */
+public final class AttackMade implements GameEvent {
+
+	/* Character making the attack. */
+	private final GameCharacter attacker;
+	/* Character being attacked. */
+	private final GameCharacter target;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param attacker character making the attack.
+	 * @param target character being attacked.
+	 */
+	public AttackMade(GameCharacter attacker, GameCharacter target) {
+		this.attacker = attacker;
+		this.target = target;
+	}
+
+	@Override
+	public String getMessage() {
+		return "The " + attacker + " attacks the " + target + ".";
+	}
+
+	/**
+	 * @return the character making the attack.
+	 */
+	public GameCharacter getAttacker() {
+		return attacker;
+	}
+
+	/**
+	 * @return the character being attacked.
+	 */
+	public GameCharacter getTarget() {
+		return target;
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.model.event;
+
+import com.model.entity.Entity;
+import com.model.entity.GameCharacter;
+import com.utils.StatValue;
+
+/**
+ * Published when a character takes damage.
+ *
+ * @author Christopher
+ *
+ */
+public final class DamageDealt implements GameEvent {
+
+	/* Entity that caused the damage. */
+	private final Entity source;
+	/* Character taking the damage. */
+	private final GameCharacter target;
+	/* Amount of damage taken. */
+	private final StatValue amount;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param source entity that caused the damage.
+	 * @param target character taking the damage.
+	 * @param amount amount of damage taken.
+	 */
+	public DamageDealt(Entity source, GameCharacter target, StatValue amount) {
+		this.source = source;
+		this.target = target;
+		this.amount = amount;
+	}
+
+	@Override
+	public String getMessage() {
+		return "The " + target + " takes " + amount + " damage.";
+	}
+
+	/**
+	 * @return the entity that caused the damage.
+	 */
+	public Entity getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the character taking the damage.
+	 */
+	public GameCharacter getTarget() {
+		return target;
+	}
+
+	/**
+	 * @return the amount of damage taken.
+	 */
+	public StatValue getAmount() {
+		return amount;
+	}
+
+}
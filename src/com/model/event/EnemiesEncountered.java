@@ -0,0 +1,67 @@
+package com.model.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.model.entity.npc.Enemy;
+import com.model.layout.Room;
+import com.utils.StringUtils;
+
+/**
+ * Published when the player is shown a room with enemies in it.
+ *
+ * @author Christopher
+ *
+ */
+public final class EnemiesEncountered implements GameEvent {
+
+	/* Room the enemies are in. */
+	private final Room room;
+	/* Enemies encountered. */
+	private final List<Enemy> enemies;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param room room the enemies are in.
+	 * @param enemies enemies encountered.
+	 */
+	public EnemiesEncountered(Room room, List<Enemy> enemies) {
+		this.room = room;
+		this.enemies = new ArrayList<Enemy>(enemies);
+	}
+
+	/**
+	 * Lists the enemies as they describe themselves, e.g. "Encountered a
+	 * goblin, an orc and a horde of 100,000 giant rats."
+	 */
+	@Override
+	public String getMessage() {
+		StringBuilder message = new StringBuilder("Encountered ");
+		for (int i = 0; i < enemies.size(); i++) {
+			message.append(StringUtils.withArticle(enemies.get(i).toString()));
+			if (i == enemies.size() - 2)
+				message.append(" and ");
+			else if (i == enemies.size() - 1)
+				message.append(".");
+			else
+				message.append(", ");
+		}
+		return message.toString();
+	}
+
+	/**
+	 * @return the room the enemies are in.
+	 */
+	public Room getRoom() {
+		return room;
+	}
+
+	/**
+	 * @return the enemies encountered.
+	 */
+	public List<Enemy> getEnemies() {
+		return enemies;
+	}
+
+}
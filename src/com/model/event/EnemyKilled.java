@@ -0,0 +1,49 @@
+package com.model.event;
+
+import com.model.entity.Entity;
+import com.model.entity.npc.Enemy;
+
+/**
+ * Published when the player kills an enemy.
+ *
+ * @author Christopher
+ *
+ */
+public final class EnemyKilled implements GameEvent {
+
+	/* Entity that killed the enemy. */
+	private final Entity killer;
+	/* Enemy killed. */
+	private final Enemy enemy;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param killer entity that killed the enemy.
+	 * @param enemy enemy killed.
+	 */
+	public EnemyKilled(Entity killer, Enemy enemy) {
+		this.killer = killer;
+		this.enemy = enemy;
+	}
+
+	@Override
+	public String getMessage() {
+		return "The " + enemy + " was killed.";
+	}
+
+	/**
+	 * @return the entity that killed the enemy.
+	 */
+	public Entity getKiller() {
+		return killer;
+	}
+
+	/**
+	 * @return the enemy killed.
+	 */
+	public Enemy getEnemy() {
+		return enemy;
+	}
+
+}
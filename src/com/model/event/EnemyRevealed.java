@@ -0,0 +1,49 @@
+package com.model.event;
+
+import com.model.entity.npc.Enemy;
+import com.model.layout.Room;
+
+/**
+ * Published when searching a room reveals an enemy hidden in it.
+ *
+ * @author Christopher
+ *
+ */
+public final class EnemyRevealed implements GameEvent {
+
+	/* Room that was searched. */
+	private final Room room;
+	/* Enemy revealed. */
+	private final Enemy enemy;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param room room that was searched.
+	 * @param enemy enemy revealed.
+	 */
+	public EnemyRevealed(Room room, Enemy enemy) {
+		this.room = room;
+		this.enemy = enemy;
+	}
+
+	@Override
+	public String getMessage() {
+		return "A " + enemy + " attacked!";
+	}
+
+	/**
+	 * @return the room that was searched.
+	 */
+	public Room getRoom() {
+		return room;
+	}
+
+	/**
+	 * @return the enemy revealed.
+	 */
+	public Enemy getEnemy() {
+		return enemy;
+	}
+
+}
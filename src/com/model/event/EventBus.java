@@ -0,0 +1,124 @@
+package com.model.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Delivers the events of a single game to whoever has subscribed to them.
+ * Subscribers choose the type of event they want, and receive events of that
+ * type and its subtypes, in the order they subscribed, on the thread that
+ * published them.
+ *
+ * Publishers should check whether an event is wanted before creating it, so
+ * that a game nobody is watching, such as a simulation, does no work at all
+ * for its events. The subscribers of each type of event are worked out once
+ * and remembered until the subscriptions change.
+ *
+ * @author Christopher
+ *
+ */
+public final class EventBus {
+
+	/* Receives nothing, for event types with no subscribers. */
+	private static final Subscription[] NONE = new Subscription[0];
+
+	/* Every subscription, in the order made. */
+	private volatile Subscription[] subscriptions;
+	/* Subscriptions receiving each type of event, worked out when needed. */
+	private final Map<Class<?>, Subscription[]> resolved;
+
+	/**
+	 * Creates an event bus with no subscribers.
+	 */
+	public EventBus() {
+		subscriptions = NONE;
+		resolved = new ConcurrentHashMap<Class<?>, Subscription[]>();
+	}
+
+	/**
+	 * Subscribes to events of the given type, including its subtypes.
+	 *
+	 * @param type type of event to receive. GameEvent receives every event.
+	 * @param listener listener to be given each event.
+	 */
+	public synchronized <E extends GameEvent> void subscribe(Class<E> type,
+			Consumer<? super E> listener) {
+		Subscription[] updated = new Subscription[subscriptions.length + 1];
+		System.arraycopy(subscriptions, 0, updated, 0, subscriptions.length);
+		updated[subscriptions.length] = new Subscription(type, listener);
+		subscriptions = updated;
+		resolved.clear();
+	}
+
+	/**
+	 * Removes every subscription made with the given listener.
+	 *
+	 * @param listener listener to be removed.
+	 */
+	public synchronized void unsubscribe(Consumer<?> listener) {
+		List<Subscription> kept = new ArrayList<Subscription>();
+		for (Subscription subscription : subscriptions)
+			if (subscription.listener != listener)
+				kept.add(subscription);
+		subscriptions = kept.toArray(NONE);
+		resolved.clear();
+	}
+
+	/**
+	 * @param type type of event.
+	 * @return true if anybody would receive events of the given type.
+	 */
+	public boolean wants(Class<? extends GameEvent> type) {
+		return subscribersOf(type).length != 0;
+	}
+
+	/**
+	 * Gives an event to everybody subscribed to its type.
+	 *
+	 * @param event event to be published.
+	 */
+	public void publish(GameEvent event) {
+		for (Subscription subscription : subscribersOf(event.getClass()))
+			subscription.deliver(event);
+	}
+
+	/* Finds the subscriptions receiving the given type of event. */
+	private Subscription[] subscribersOf(Class<?> type) {
+		Subscription[] found = resolved.get(type);
+		return found != null ? found : resolve(type);
+	}
+
+	/* Works out and remembers the subscriptions receiving a type of event. */
+	private synchronized Subscription[] resolve(Class<?> type) {
+		List<Subscription> matching = new ArrayList<Subscription>();
+		for (Subscription subscription : subscriptions)
+			if (subscription.type.isAssignableFrom(type))
+				matching.add(subscription);
+		Subscription[] found = matching.toArray(NONE);
+		resolved.put(type, found);
+		return found;
+	}
+
+	/* A listener, and the type of event it receives. */
+	private static final class Subscription {
+
+		private final Class<?> type;
+		private final Consumer<?> listener;
+
+		Subscription(Class<?> type, Consumer<?> listener) {
+			this.type = type;
+			this.listener = listener;
+		}
+
+		@SuppressWarnings("unchecked")
+		void deliver(GameEvent event) {
+			// The type was checked when the subscribers were found.
+			((Consumer<GameEvent>) listener).accept(event);
+		}
+
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.model.event;
+
+/**
+ * Something that happened in the game, published on the game's EventBus.
+ * Events are small records of what happened. Text describing them is only
+ * formatted when a subscriber asks for it, so events nobody reads cost
+ * nothing to describe.
+ *
+ * The entities an event refers to may change after it is published, so
+ * subscribers wanting text should ask for it when the event is received.
+ *
+ * @author Christopher
+ *
+ */
+public interface GameEvent {
+
+	/**
+	 * @return a human readable description of the event, or null if the
+	 *         event has none.
+	 */
+	String getMessage();
+
+}
@@ -0,0 +1,62 @@
+package com.model.event;
+
+import com.model.entity.Entity;
+import com.model.entity.GameCharacter;
+import com.utils.StatValue;
+
+/**
+ * Published when a character's health is restored.
+ *
+ * @author Christopher
+ *
+ */
+public final class HealthRestored implements GameEvent {
+
+	/* Entity that restored the health. */
+	private final Entity source;
+	/* Character whose health was restored. */
+	private final GameCharacter target;
+	/* Amount of health restored. */
+	private final StatValue amount;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param source entity that restored the health.
+	 * @param target character whose health was restored.
+	 * @param amount amount of health restored.
+	 */
+	public HealthRestored(Entity source, GameCharacter target,
+			StatValue amount) {
+		this.source = source;
+		this.target = target;
+		this.amount = amount;
+	}
+
+	@Override
+	public String getMessage() {
+		return "The " + source + " gains " + amount + " health.";
+	}
+
+	/**
+	 * @return the entity that restored the health.
+	 */
+	public Entity getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the character whose health was restored.
+	 */
+	public GameCharacter getTarget() {
+		return target;
+	}
+
+	/**
+	 * @return the amount of health restored.
+	 */
+	public StatValue getAmount() {
+		return amount;
+	}
+
+}
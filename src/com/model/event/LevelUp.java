@@ -0,0 +1,74 @@
+package com.model.event;
+
+import com.model.entity.pc.Attribute;
+import com.model.entity.pc.Player;
+import com.utils.StatValue;
+import com.utils.StringUtils;
+
+/**
+ * Published when the player gains one or more levels, along with the increase
+ * in each of their attributes.
+ *
+ * @author Christopher
+ *
+ */
+public final class LevelUp implements GameEvent {
+
+	/* Player who levelled up. */
+	private final Player player;
+	/* Level reached. */
+	private final long level;
+	/* Increase in each attribute, by attribute ordinal. */
+	private final StatValue[] increases;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param player player who levelled up.
+	 * @param level level reached.
+	 * @param increases increase in each attribute, by attribute ordinal.
+	 */
+	public LevelUp(Player player, long level, StatValue[] increases) {
+		this.player = player;
+		this.level = level;
+		this.increases = increases.clone();
+	}
+
+	/**
+	 * Describes the new level and each attribute increase on separate lines,
+	 * set apart from the surrounding text by blank lines.
+	 */
+	@Override
+	public String getMessage() {
+		StringBuilder message = new StringBuilder("\nYou have reached level ")
+				.append(level).append("!\n");
+		for (int i = 0; i < increases.length; i++)
+			message.append(StringUtils.titleCase(Attribute.fromOrdinal(i)
+					.toString())).append(" was increased by ")
+					.append(increases[i]).append('\n');
+		return message.toString();
+	}
+
+	/**
+	 * @return the player who levelled up.
+	 */
+	public Player getPlayer() {
+		return player;
+	}
+
+	/**
+	 * @return the level reached.
+	 */
+	public long getLevel() {
+		return level;
+	}
+
+	/**
+	 * @param attribute an attribute.
+	 * @return the increase in the attribute.
+	 */
+	public StatValue getIncrease(Attribute attribute) {
+		return increases[attribute.ordinal()];
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.model.event;
+
+import com.model.entity.Entity;
+import com.model.entity.GameCharacter;
+import com.utils.StatValue;
+
+/**
+ * Published when a character's mana is restored.
+ *
+ * @author Christopher
+ *
+ */
+public final class ManaRestored implements GameEvent {
+
+	/* Entity that restored the mana. */
+	private final Entity source;
+	/* Character whose mana was restored. */
+	private final GameCharacter target;
+	/* Amount of mana restored. */
+	private final StatValue amount;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param source entity that restored the mana.
+	 * @param target character whose mana was restored.
+	 * @param amount amount of mana restored.
+	 */
+	public ManaRestored(Entity source, GameCharacter target, StatValue amount) {
+		this.source = source;
+		this.target = target;
+		this.amount = amount;
+	}
+
+	@Override
+	public String getMessage() {
+		return "The " + source + " gains " + amount + " mana.";
+	}
+
+	/**
+	 * @return the entity that restored the mana.
+	 */
+	public Entity getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the character whose mana was restored.
+	 */
+	public GameCharacter getTarget() {
+		return target;
+	}
+
+	/**
+	 * @return the amount of mana restored.
+	 */
+	public StatValue getAmount() {
+		return amount;
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.model.event;
+
+import com.model.entity.Entity;
+import com.model.entity.GameCharacter;
+import com.utils.StatValue;
+
+/**
+ * Published when a character's mana is spent.
+ *
+ * @author Christopher
+ *
+ */
+public final class ManaSpent implements GameEvent {
+
+	/* Entity that caused the mana to be spent. */
+	private final Entity source;
+	/* Character whose mana was spent. */
+	private final GameCharacter target;
+	/* Amount of mana spent. */
+	private final StatValue amount;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param source entity that caused the mana to be spent.
+	 * @param target character whose mana was spent.
+	 * @param amount amount of mana spent.
+	 */
+	public ManaSpent(Entity source, GameCharacter target, StatValue amount) {
+		this.source = source;
+		this.target = target;
+		this.amount = amount;
+	}
+
+	@Override
+	public String getMessage() {
+		return "The " + source + " loses " + amount + " mana.";
+	}
+
+	/**
+	 * @return the entity that caused the mana to be spent.
+	 */
+	public Entity getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the character whose mana was spent.
+	 */
+	public GameCharacter getTarget() {
+		return target;
+	}
+
+	/**
+	 * @return the amount of mana spent.
+	 */
+	public StatValue getAmount() {
+		return amount;
+	}
+
+}
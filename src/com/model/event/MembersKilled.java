@@ -0,0 +1,62 @@
+package com.model.event;
+
+import com.model.entity.Entity;
+import com.model.entity.npc.Enemy;
+import com.utils.StatValue;
+
+/**
+ * Published when the player kills some members of a group of enemies, such as a
+ * horde, without killing the whole group.
+ *
+ * @author Christopher
+ *
+ */
+public final class MembersKilled implements GameEvent {
+
+	/* Entity that killed the members. */
+	private final Entity killer;
+	/* Group the members belonged to. */
+	private final Enemy group;
+	/* Number of members killed. */
+	private final StatValue count;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param killer entity that killed the members.
+	 * @param group group the members belonged to.
+	 * @param count number of members killed.
+	 */
+	public MembersKilled(Entity killer, Enemy group, StatValue count) {
+		this.killer = killer;
+		this.group = group;
+		this.count = count;
+	}
+
+	@Override
+	public String getMessage() {
+		return "You killed " + count + " of the " + group + ".";
+	}
+
+	/**
+	 * @return the entity that killed the members.
+	 */
+	public Entity getKiller() {
+		return killer;
+	}
+
+	/**
+	 * @return the group the members belonged to.
+	 */
+	public Enemy getGroup() {
+		return group;
+	}
+
+	/**
+	 * @return the number of members killed.
+	 */
+	public StatValue getCount() {
+		return count;
+	}
+
+}
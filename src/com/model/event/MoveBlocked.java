@@ -0,0 +1,49 @@
+package com.model.event;
+
+import com.model.layout.Direction;
+import com.model.layout.FloorLayout;
+
+/**
+ * Published when the player fails to move through a locked door.
+ *
+ * @author Christopher
+ *
+ */
+public final class MoveBlocked implements GameEvent {
+
+	/* Floor the player is on. */
+	private final FloorLayout layout;
+	/* Direction the player tried to move in. */
+	private final Direction direction;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param layout floor the player is on.
+	 * @param direction direction the player tried to move in.
+	 */
+	public MoveBlocked(FloorLayout layout, Direction direction) {
+		this.layout = layout;
+		this.direction = direction;
+	}
+
+	@Override
+	public String getMessage() {
+		return "The door is locked.";
+	}
+
+	/**
+	 * @return the floor the player is on.
+	 */
+	public FloorLayout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * @return the direction the player tried to move in.
+	 */
+	public Direction getDirection() {
+		return direction;
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.model.event;
+
+import com.model.entity.Entity;
+import com.model.entity.pc.Player;
+
+/**
+ * Published when the player dies.
+ *
+ * @author Christopher
+ *
+ */
+public final class PlayerDied implements GameEvent {
+
+	/* Player who died. */
+	private final Player player;
+	/* Entity responsible for the death. */
+	private final Entity source;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param player player who died.
+	 * @param source entity responsible for the death.
+	 */
+	public PlayerDied(Player player, Entity source) {
+		this.player = player;
+		this.source = source;
+	}
+
+	@Override
+	public String getMessage() {
+		return "THE PLAYER IS DEAD. LONG LIVE THE PLAYER";
+	}
+
+	/**
+	 * @return the player who died.
+	 */
+	public Player getPlayer() {
+		return player;
+	}
+
+	/**
+	 * @return the entity responsible for the death.
+	 */
+	public Entity getSource() {
+		return source;
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.model.event;
+
+import com.model.layout.Direction;
+import com.model.layout.FloorLayout;
+import com.utils.StringUtils;
+
+/**
+ * Published when the player moves to a neighbouring room.
+ *
+ * @author Christopher
+ *
+ */
+public final class PlayerMoved implements GameEvent {
+
+	/* Floor the player is on. */
+	private final FloorLayout layout;
+	/* Direction the player moved in. */
+	private final Direction direction;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param layout floor the player is on.
+	 * @param direction direction the player moved in.
+	 */
+	public PlayerMoved(FloorLayout layout, Direction direction) {
+		this.layout = layout;
+		this.direction = direction;
+	}
+
+	@Override
+	public String getMessage() {
+		return "Moved " + StringUtils.titleCase(direction.toString()) + ".";
+	}
+
+	/**
+	 * @return the floor the player is on.
+	 */
+	public FloorLayout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * @return the direction the player moved in.
+	 */
+	public Direction getDirection() {
+		return direction;
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.model.event;
+
+import com.model.layout.Room;
+
+/**
+ * Published when a room is searched. Any enemies revealed are published
+ * separately.
+ *
+ * @author Christopher
+ *
+ */
+public final class RoomSearched implements GameEvent {
+
+	/* Room that was searched. */
+	private final Room room;
+	/* Number of things hidden in the room. */
+	private final int hiddenCount;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param room room that was searched.
+	 * @param hiddenCount number of things hidden in the room.
+	 */
+	public RoomSearched(Room room, int hiddenCount) {
+		this.room = room;
+		this.hiddenCount = hiddenCount;
+	}
+
+	@Override
+	public String getMessage() {
+		return hiddenCount == 0 ? "Nothing was found." : null;
+	}
+
+	/**
+	 * @return the room that was searched.
+	 */
+	public Room getRoom() {
+		return room;
+	}
+
+	/**
+	 * @return the number of things hidden in the room.
+	 */
+	public int getHiddenCount() {
+		return hiddenCount;
+	}
+
+}
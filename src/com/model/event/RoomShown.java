@@ -0,0 +1,50 @@
+package com.model.event;
+
+import com.model.layout.FloorLayout;
+import com.model.layout.Room;
+
+/**
+ * Published when the player's current room is shown to them, such as after
+ * moving into it. Any enemies in it are published separately.
+ *
+ * @author Christopher
+ *
+ */
+public final class RoomShown implements GameEvent {
+
+	/* Floor the room is on. */
+	private final FloorLayout layout;
+	/* Room shown. */
+	private final Room room;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param layout floor the room is on.
+	 * @param room room shown.
+	 */
+	public RoomShown(FloorLayout layout, Room room) {
+		this.layout = layout;
+		this.room = room;
+	}
+
+	@Override
+	public String getMessage() {
+		return null;
+	}
+
+	/**
+	 * @return the floor the room is on.
+	 */
+	public FloorLayout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * @return the room shown.
+	 */
+	public Room getRoom() {
+		return room;
+	}
+
+}
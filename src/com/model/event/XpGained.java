@@ -0,0 +1,49 @@
+package com.model.event;
+
+import com.model.entity.pc.Player;
+import com.utils.StatValue;
+
+/**
+ * Published when the player gains experience.
+ *
+ * @author Christopher
+ *
+ */
+public final class XpGained implements GameEvent {
+
+	/* Player gaining the experience. */
+	private final Player player;
+	/* Amount of experience gained. */
+	private final StatValue amount;
+
+	/**
+	 * Creates the event.
+	 *
+	 * @param player player gaining the experience.
+	 * @param amount amount of experience gained.
+	 */
+	public XpGained(Player player, StatValue amount) {
+		this.player = player;
+		this.amount = amount;
+	}
+
+	@Override
+	public String getMessage() {
+		return "You gain " + amount + "xp.";
+	}
+
+	/**
+	 * @return the player gaining the experience.
+	 */
+	public Player getPlayer() {
+		return player;
+	}
+
+	/**
+	 * @return the amount of experience gained.
+	 */
+	public StatValue getAmount() {
+		return amount;
+	}
+
+}
@@ -19,12 +19,17 @@ public enum Direction {
 	WEST(-1, 0);
 
 	private Dimension offset;
+	/* Change in each co-ordinate from travelling one cell. */
+	private final int dx;
+	private final int dy;
 
 	/**
 	 *
 	 */
 	private Direction(int xDiff, int yDiff) {
 		offset = new Dimension(xDiff, yDiff);
+		dx = xDiff;
+		dy = yDiff;
 	}
 
 	/**
@@ -34,4 +39,37 @@ public enum Direction {
 	public Dimension getOffset() {
 		return offset;
 	}
+
+	/**
+	 * @return the change in x co-ordinate caused by travelling one cell in
+	 *         this direction.
+	 */
+	public int getDx() {
+		return dx;
+	}
+
+	/**
+	 * @return the change in y co-ordinate caused by travelling one cell in
+	 *         this direction.
+	 */
+	public int getDy() {
+		return dy;
+	}
+
+	/**
+	 * @return the direction pointing the opposite way to this one.
+	 */
+	public Direction opposite() {
+		switch (this) {
+		case NORTH:
+			return SOUTH;
+		case EAST:
+			return WEST;
+		case SOUTH:
+			return NORTH;
+		case WEST:
+		default:
+			return EAST;
+		}
+	}
 }
@@ -1,89 +1,338 @@
 package com.model.layout;
 
 import java.awt.Dimension;
-import java.security.InvalidParameterException;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
 
+import com.model.GameContext;
+import com.model.GameRandom;
 import com.model.entity.npc.Enemy;
-import com.utils.StringUtils;
-import com.view.GUI;
-import com.view.images.BackgroundImage;
+import com.model.entity.npc.EnemyType;
+import com.model.entity.npc.SpawnTable;
+import com.model.event.EnemiesEncountered;
+import com.model.event.EventBus;
+import com.model.event.MoveBlocked;
+import com.model.event.PlayerMoved;
+import com.model.event.RoomShown;
 
 /**
  * Represents the layout of the floor, including all of the positions of the
  * rooms. Also tracks the position of the player for ease of use.
  *
+ * Rooms are only created when they are first needed, and their contents are
+ * generated from the game's seed, the floor number and the room's location
+ * alone, so a room is the same whenever it is generated. Only rooms whose
+ * contents have changed are kept, in an overlay, and any other room is
+ * generated again each time it is asked for, so the cost of a floor grows
+ * with the rooms the player has changed rather than with its area. As a
+ * result, unchanged rooms should not be compared by identity.
+ * Flags such as whether each room has been discovered, and which doors are
+ * locked, are kept for every room in a RoomStore, a few bits per room, which
+ * is paged to a file for floors too large for the heap. The
+ * doors are laid out as a maze by a MazeGenerator when the floor is created,
+ * so every room can be reached from the player's.
+ *
+ * Floors hold no reference to the interface. Whatever happens on a floor is
+ * published on the event bus of the game it belongs to, so a floor can be
+ * built in the background and put into play without being told of a view.
+ *
+ * Rooms can be referred to either by co-ordinates or by room id, which packs
+ * both co-ordinates into a single int. Id based methods never allocate or
+ * throw, and report missing rooms with NO_ROOM, so they should be preferred
+ * wherever many rooms are checked, such as when drawing the map.
+ *
  * @author Christopher
  *
  */
 public class FloorLayout {
 
+	/**
+	 * Room id returned in place of a room that does not exist, such as the
+	 * neighbour of a room on the edge of the floor.
+	 */
+	public static final int NO_ROOM = -1;
+
 	/* Floor number of this floor */
 	private int floorNum;
+	/* Id of the room the player is in. */
+	private int playerRoom;
 	/* Player's current location as a co-ordinate, starting from (0,0) */
 	private Dimension playerLocation;
+	/* Id of the room with the stairs down to the next floor. */
+	private int stairsRoom;
 
-	/* 2d array of rooms in each location */
-	private Room[][] rooms;
-	/* 2d array of whether the north door of each room is locked. */
-	private boolean[][] northDoorLocked;
-	/* 2d array of whether the east door of each room is locked */
-	private boolean[][] eastDoorLocked;
+	/*
+	 * Rooms whose contents have changed since they were generated, by room id.
+	 * Other rooms are generated afresh whenever they are needed.
+	 */
+	private Map<Integer, Room> rooms;
+	/* Flags and enemy counts of every room, by room id. */
+	private RoomStore store;
+	/* Routes between discovered rooms. */
+	private PathFinder pathFinder;
+	/* The enemies found on this floor, scaled to it. */
+	private SpawnTable spawnTable;
 
-	/* View to be notified by room events. */
-	private GUI view;
+	/* The game this floor belongs to. */
+	private GameContext context;
 
 	/**
-	 * Generates a new floor layout of the designated floor number.
+	 * Generates a new floor layout of the designated floor number, belonging to
+	 * the given game, with no player on it.
 	 *
 	 * @param floorNumber the floor number to be created. Floor width and height
 	 *            will be set to this value plus three.
+	 * @param context the context of the game the floor belongs to.
 	 */
-	public FloorLayout(int floorNumber) {
-		this(floorNumber, null);
+	public FloorLayout(int floorNumber, GameContext context) {
+		this(floorNumber, null, context);
 	}
 
 	/**
-	 * Generates a new floor layout of the designated floor number.
+	 * Generates a new floor layout of the designated floor number, belonging to
+	 * the given game.
 	 *
 	 * @param floorNumber the floor number to be created. Floor width and height
 	 *            will be set to this value plus three.
 	 * @param playerLocation the initial location of the player.
+	 * @param context the context of the game the floor belongs to.
 	 */
-	public FloorLayout(int floorNumber, Dimension playerLocation) {
-		this(floorNumber, playerLocation, null);
+	public FloorLayout(int floorNumber, Dimension playerLocation,
+			GameContext context) {
+		this(floorNumber, playerLocation, context, MazeGenerator.Style.BRAIDED);
 	}
 
 	/**
-	 * Generates a new floor layout of the designated floor number.
+	 * Generates a new floor layout of the designated floor number, belonging to
+	 * the given game, with its doors laid out as the given kind of maze.
 	 *
 	 * @param floorNumber the floor number to be created. Floor width and height
 	 *            will be set to this value plus three.
 	 * @param playerLocation the initial location of the player.
-	 * @param view view to be notified
+	 * @param context the context of the game the floor belongs to.
+	 * @param style the kind of maze formed by the floor's locked doors.
 	 */
-	public FloorLayout(int floorNumber, Dimension playerLocation, GUI view) {
+	public FloorLayout(int floorNumber, Dimension playerLocation,
+			GameContext context, MazeGenerator.Style style) {
+		if (context == null)
+			throw new IllegalArgumentException("Floors must belong to a game.");
 		this.floorNum = floorNumber;
-		this.view = view;
-		rooms = new Room[floorNumber + 3][floorNumber + 3];
-		northDoorLocked = new boolean[floorNumber + 3][floorNumber + 2];
-		eastDoorLocked = new boolean[floorNumber + 2][floorNumber + 3];
-		generateRooms();
-		setPlayerLocation(playerLocation);
+		this.context = context;
+		rooms = new HashMap<Integer, Room>();
+		store = RoomStore.create(floorNumber + 3, floorNumber + 3);
+		spawnTable = context.getEnemies().acquire(floorNumber);
+		new MazeGenerator(style).generate(store, context.getRandom()
+				.derive(GameRandom.Stream.GENERATION, floorNum).nextLong());
+		pathFinder = new PathFinder(this);
+		int startRoom = playerLocation == null ? NO_ROOM
+				: getRoomId(playerLocation);
+		placeStairs(startRoom);
+		// The room is shown once the floor is in play.
+		if (roomExists(startRoom))
+			enterRoom(startRoom);
+	}
+
+	// Room generation.
+
+	/* Creates the room with the given id, with contents decided by its seed. */
+	private Room generateRoom(int id) {
+		Room room = new Room(store, id, context);
+		populate(room, context.getRandom().derive(
+				GameRandom.Stream.GENERATION, floorNum, getRoomX(id),
+				getRoomY(id)));
+		return room;
+	}
+
+	/* Places the stairs in a random room, other than the player's. */
+	private void placeStairs(int startRoom) {
+		SplittableRandom random = context.getRandom().derive(
+				GameRandom.Stream.GENERATION, floorNum, NO_ROOM);
+		int size = store.size();
+		stairsRoom = random.nextInt(size);
+		if (stairsRoom == startRoom && size > 1)
+			stairsRoom = (stairsRoom + 1 + random.nextInt(size - 1)) % size;
+	}
+
+	/*
+	 * Fills a newly created room with its enemies, which may be a horde, and
+	 * hidden objects.
+	 */
+	private void populate(Room room, SplittableRandom random) {
+		EnemyType type = spawnTable.pick(random);
+		room.addEnemies(spawnTable.getProfile(type), spawnTable.pickCount(
+				type, random));
+		room.hideEntity(new Enemy(spawnTable.getProfile(spawnTable
+				.pick(random))));
+	}
+
+	// Room ids.
+
+	/**
+	 * Gets the id of the room at the given location. Rooms are numbered row by
+	 * row from the bottom left of the floor, starting at 0.
+	 *
+	 * @param x x coordinate of the room.
+	 * @param y y coordinate of the room.
+	 * @return the id of the room, or NO_ROOM if the location is not on the
+	 *         floor.
+	 */
+	public int getRoomId(int x, int y) {
+		if (x < 0 || y < 0 || x >= store.getWidth() || y >= store.getHeight())
+			return NO_ROOM;
+		return y * store.getWidth() + x;
+	}
+
+	/**
+	 * @param location location of a room.
+	 * @return the id of the room, or NO_ROOM if the location is not on the
+	 *         floor.
+	 */
+	public int getRoomId(Dimension location) {
+		return getRoomId(location.width, location.height);
+	}
+
+	/**
+	 * @param id id of a room.
+	 * @return the x coordinate of the room.
+	 */
+	public int getRoomX(int id) {
+		return id % store.getWidth();
+	}
+
+	/**
+	 * @param id id of a room.
+	 * @return the y coordinate of the room.
+	 */
+	public int getRoomY(int id) {
+		return id / store.getWidth();
+	}
+
+	/**
+	 * Gets the id of the room next to the given room in the given direction.
+	 *
+	 * @param id id of the room to start from.
+	 * @param dir direction to be travelled.
+	 * @return the id of the neighbouring room, or NO_ROOM if either room does
+	 *         not exist.
+	 */
+	public int getNeighbour(int id, Direction dir) {
+		if (id == NO_ROOM)
+			return NO_ROOM;
+		int width = store.getWidth();
+		return getRoomId(id % width + dir.getDx(), id / width + dir.getDy());
+	}
+
+	/**
+	 * @param id id of a room.
+	 * @return true if the id is that of a room on this floor.
+	 */
+	public boolean roomExists(int id) {
+		return id >= 0 && id < store.size();
+	}
+
+	/**
+	 * @param id id of a room.
+	 * @return true if the room exists and has been discovered. This never
+	 *         generates the room.
+	 */
+	public boolean roomDiscovered(int id) {
+		return roomExists(id) && store.get(RoomStore.Flag.DISCOVERED, id);
+	}
+
+	/**
+	 * @param id id of a room.
+	 * @return true if the room exists and has been entered. This never
+	 *         generates the room.
+	 */
+	public boolean roomEntered(int id) {
+		return roomExists(id) && store.get(RoomStore.Flag.ENTERED, id);
+	}
+
+	/**
+	 * @param id id of a room.
+	 * @return true if the room exists and has been searched. This never
+	 *         generates the room.
+	 */
+	public boolean roomSearched(int id) {
+		return roomExists(id) && store.get(RoomStore.Flag.SEARCHED, id);
+	}
+
+	/**
+	 * @param id id of a room.
+	 * @return the number of living enemies in the room, as of the last time
+	 *         its enemies were checked. This never generates the room.
+	 */
+	public int getEnemyCount(int id) {
+		return roomExists(id) ? store.getEnemyCount(id) : 0;
+	}
+
+	/**
+	 * Returns true if the door between the given room and the room in the
+	 * given direction is locked. There is no door at the edge of the floor.
+	 *
+	 * @param dir direction of the door from the room.
+	 * @param id id of the room.
+	 * @return whether a locked door exists.
+	 */
+	public boolean doorLocked(Direction dir, int id) {
+		int neighbour = getNeighbour(id, dir);
+		if (neighbour == NO_ROOM)
+			return false;
+		// Each door is stored once, by the room to its south or west.
+		switch (dir) {
+		case NORTH:
+			return store.get(RoomStore.Flag.NORTH_LOCKED, id);
+		case SOUTH:
+			return store.get(RoomStore.Flag.NORTH_LOCKED, neighbour);
+		case EAST:
+			return store.get(RoomStore.Flag.EAST_LOCKED, id);
+		case WEST:
+		default:
+			return store.get(RoomStore.Flag.EAST_LOCKED, neighbour);
+		}
+	}
+
+	/**
+	 * Locks or unlocks the door between the given room and the room in the
+	 * given direction. Does nothing at the edge of the floor.
+	 *
+	 * @param dir direction of the door from the room.
+	 * @param id id of the room.
+	 * @param locked true to lock the door, or false to unlock it.
+	 */
+	public void setDoorLocked(Direction dir, int id, boolean locked) {
+		int neighbour = getNeighbour(id, dir);
+		if (neighbour == NO_ROOM || doorLocked(dir, id) == locked)
+			return;
+		switch (dir) {
+		case NORTH:
+			store.set(RoomStore.Flag.NORTH_LOCKED, id, locked);
+			break;
+		case SOUTH:
+			store.set(RoomStore.Flag.NORTH_LOCKED, neighbour, locked);
+			break;
+		case EAST:
+			store.set(RoomStore.Flag.EAST_LOCKED, id, locked);
+			break;
+		case WEST:
+		default:
+			store.set(RoomStore.Flag.EAST_LOCKED, neighbour, locked);
+			break;
+		}
+		pathFinder.floorChanged();
 	}
 
-	// Generates the rooms for the layout.
-	private void generateRooms() {
-		for (int i = 0; i < floorNum + 3; i++)
-			for (int j = 0; j < floorNum + 3; j++) {
-				if (i != floorNum + 2)
-					eastDoorLocked[i][j] = false;
-				if (j != floorNum + 2)
-					northDoorLocked[i][j] = false;
-				rooms[i][j] = new Room(view);
-			}
+	/* Marks a room as discovered, without generating it. */
+	private void discover(int id) {
+		if (store.get(RoomStore.Flag.DISCOVERED, id))
+			return;
+		store.set(RoomStore.Flag.DISCOVERED, id, true);
+		pathFinder.floorChanged();
 	}
 
+	// Co-ordinate based queries.
+
 	/**
 	 * Returns true if there is a room in the selected direction next to the
 	 * room currently inhabited by the player, or otherwise false.
@@ -92,7 +341,7 @@ public class FloorLayout {
 	 * @return whether a room exists.
 	 */
 	public boolean roomExists(Direction dir) {
-		return roomExists(dir, playerLocation);
+		return getNeighbour(playerRoom, dir) != NO_ROOM;
 	}
 
 	/**
@@ -104,16 +353,7 @@ public class FloorLayout {
 	 * @return whether a room exists.
 	 */
 	public boolean roomExists(Direction dir, Dimension location) {
-		try {
-			// Find offset location.
-			Dimension targetPosition = offsetLocation(location,
-					dir.getOffset(), floorNum + 2, floorNum + 2);
-			// Check room at location.
-			return rooms[targetPosition.width][targetPosition.height] != null;
-		} catch (InvalidParameterException e) {
-			// Location was out of bounds.
-			return false;
-		}
+		return getNeighbour(getRoomId(location), dir) != NO_ROOM;
 	}
 
 	/**
@@ -125,10 +365,19 @@ public class FloorLayout {
 	 * @return whether the specified room exists and has been discovered.
 	 */
 	public boolean roomDiscovered(Direction dir, Dimension location) {
-		if (!roomExists(dir, location))
-			return false;
-		return (getRoom(offsetLocation(location, dir.getOffset())))
-				.hasBeenDiscovered();
+		return roomDiscovered(getNeighbour(getRoomId(location), dir));
+	}
+
+	/**
+	 * Returns true if the room at the given location both exists and has been
+	 * discovered, else false. This never generates the room.
+	 *
+	 * @param x x coordinate of the room.
+	 * @param y y coordinate of the room.
+	 * @return whether the specified room exists and has been discovered.
+	 */
+	public boolean roomDiscovered(int x, int y) {
+		return roomDiscovered(getRoomId(x, y));
 	}
 
 	/**
@@ -140,10 +389,19 @@ public class FloorLayout {
 	 * @return whether the specified room exists and has been entered.
 	 */
 	public boolean roomEntered(Direction dir, Dimension location) {
-		if (!roomExists(dir, location))
-			return false;
-		return (getRoom(offsetLocation(location, dir.getOffset())))
-				.hasBeenEntered();
+		return roomEntered(getNeighbour(getRoomId(location), dir));
+	}
+
+	/**
+	 * Returns true if the room at the given location both exists and has been
+	 * entered, else false. This never generates the room.
+	 *
+	 * @param x x coordinate of the room.
+	 * @param y y coordinate of the room.
+	 * @return whether the specified room exists and has been entered.
+	 */
+	public boolean roomEntered(int x, int y) {
+		return roomEntered(getRoomId(x, y));
 	}
 
 	/**
@@ -154,7 +412,7 @@ public class FloorLayout {
 	 * @return whether a locked door exists.
 	 */
 	public boolean doorLocked(Direction dir) {
-		return roomExists(dir, playerLocation);
+		return doorLocked(dir, playerRoom);
 	}
 
 	/**
@@ -166,81 +424,30 @@ public class FloorLayout {
 	 * @return whether a locked door exists.
 	 */
 	public boolean doorLocked(Direction dir, Dimension location) {
-		try {
-			// Find offset location.
-			Dimension targetPosition = offsetLocation(location,
-					dir.getOffset(), floorNum + 2, floorNum + 2);
-			// Check room at location.
-			if (rooms[targetPosition.width][targetPosition.height] == null)
-				return false;
-			// Make sure correct door is being checked.
-			if (dir == Direction.NORTH || dir == Direction.EAST)
-				targetPosition = location;
-			// Check array for locked door.
-			if (dir == Direction.NORTH || dir == Direction.SOUTH)
-				return northDoorLocked[targetPosition.width][targetPosition.height];
-			else
-				return eastDoorLocked[targetPosition.width][targetPosition.height];
-		} catch (InvalidParameterException e) {
-			// Location was out of bounds.
-			return false;
-		}
-	}
-
-	/**
-	 * Returns the passed location offset by the passed offset, after checking
-	 * that the resultant location is within the bounds of this floor. If not,
-	 * throws an InvalidParameterException.
-	 *
-	 * @param location location to be offset.
-	 * @param offset amount to offset location by.
-	 * @return offset location.
-	 * @throws InvalidParameterException if combined location is not within the
-	 *             floor bounds.
-	 */
-	public Dimension offsetLocation(Dimension location, Dimension offset) {
-		return offsetLocation(location, offset, floorNum + 2, floorNum + 2);
-	}
-
-	/**
-	 * Returns the passed location offset by the passed offset, after checking
-	 * that the resultant location is within the bounds given. If not, throws an
-	 * InvalidParameterException.
-	 *
-	 * @param location location to be offset.
-	 * @param offset amount to offset location by.
-	 * @param floorWidth maximum value for resultant location width.
-	 * @param floorHeight maximum value for resultant location height.
-	 * @return offset location.
-	 * @throws InvalidParameterException if combined location is not within the
-	 *             given bounds.
-	 */
-	public Dimension offsetLocation(Dimension location, Dimension offset,
-			int floorWidth, int floorHeight) {
-		Dimension targetPosition = new Dimension(location);
-		targetPosition.width += offset.getWidth();
-		targetPosition.height += offset.getHeight();
-		// Check if the location is within the array bounds.
-		if (targetPosition.getWidth() < 0 || targetPosition.getHeight() < 0
-				|| targetPosition.getHeight() > floorHeight
-				|| targetPosition.getWidth() > floorWidth)
-			throw new InvalidParameterException("Location out of bounds.");
-		return targetPosition;
+		return doorLocked(dir, getRoomId(location));
 	}
 
 	/**
 	 * Attempts to move the player in the specified direction. Will return false
-	 * if this would leave the player out of bounds, or in a gap, or otherwise
-	 * will return true.
+	 * if this would leave the player out of bounds, or pass through a locked
+	 * door, or otherwise will return true.
 	 *
 	 * @param dir direction to move the player.
-	 * @return true if the room exists, else false.
+	 * @return true if the room exists and can be reached, else false.
 	 */
 	public boolean movePlayer(Direction dir) {
-		if (view != null)
-			view.displayMessage("Moved "
-					+ StringUtils.titleCase(dir.toString()) + ".");
-		return setPlayerLocation(offsetLocation(playerLocation, dir.getOffset()));
+		int target = getNeighbour(playerRoom, dir);
+		if (target == NO_ROOM)
+			return false;
+		EventBus events = context.getEvents();
+		if (doorLocked(dir, playerRoom)) {
+			if (events.wants(MoveBlocked.class))
+				events.publish(new MoveBlocked(this, dir));
+			return false;
+		}
+		if (events.wants(PlayerMoved.class))
+			events.publish(new PlayerMoved(this, dir));
+		return setPlayerRoom(target);
 	}
 
 	// Accessors
@@ -254,74 +461,128 @@ public class FloorLayout {
 	 * @return true if the player could be moved otherwise false.
 	 */
 	public boolean setPlayerLocation(Dimension location) {
-		if (location.getWidth() < 0 || location.getHeight() < 0
-				|| location.getHeight() > floorNum + 2
-				|| location.getWidth() > floorNum + 2)
-			return false;
-		if (rooms[location.width][location.height] == null)
-			return false;
+		return location != null && setPlayerRoom(getRoomId(location));
+	}
 
-		// Set the player location
-		playerLocation = location;
+	/**
+	 * Attempts to move the player to the room with the given id. Will return
+	 * false if the room is not on the floor, otherwise will return true and
+	 * move the player accordingly.
+	 *
+	 * @param id id of the room for the player to be moved to.
+	 * @return true if the player could be moved otherwise false.
+	 */
+	public boolean setPlayerRoom(int id) {
+		if (!roomExists(id))
+			return false;
+		enterRoom(id);
+		showRoom();
+		return true;
+	}
 
-		// Update the background image. New background types go here.
-		if (view != null) {
-			view.setBackgroundImage(BackgroundImage.ROOM);
-			view.clearForeground();
+	/**
+	 * Moves the player along the given route, one room at a time, stopping
+	 * early if a room with enemies is entered. Only the room the player stops
+	 * in is shown.
+	 *
+	 * @param path direction of each move along the route, in order, such as
+	 *            from the PathFinder.
+	 * @return the number of moves made.
+	 */
+	public int travel(Direction[] path) {
+		int moves = 0;
+		for (Direction dir : path) {
+			int target = getNeighbour(playerRoom, dir);
+			if (target == NO_ROOM || doorLocked(dir, playerRoom))
+				break;
+			enterRoom(target);
+			moves++;
+			if (getRoom().getEnemyCount() != 0)
+				break;
 		}
+		if (moves > 0)
+			showRoom();
+		return moves;
+	}
 
-		// Check for enemies.
-		List<Enemy> enemies = getRoom().getEnemies();
-		// Inform the player about these enemies.
-		if (view != null && !enemies.isEmpty()) {
-			String message = "Encountered a ";
-			for (int i = 0; i < enemies.size(); i++) {
-				message += StringUtils.titleCase(enemies.get(i).toString()
-						.toLowerCase());
-				if (i == enemies.size() - 2)
-					message += " and a ";
-				else if (i == enemies.size() - 1)
-					message += ".";
-				else
-					message += ", ";
-			}
-			view.displayMessage(message);
+	/* Moves the player into a room, discovering the rooms around it. */
+	private void enterRoom(int id) {
+		// Set the player location
+		playerRoom = id;
+		playerLocation = new Dimension(getRoomX(id), getRoomY(id));
+
+		// Discover this and nearby rooms, without generating the others.
+		discover(id);
+		for (Direction dir : Direction.values()) {
+			int nearby = getNeighbour(id, dir);
+			if (nearby != NO_ROOM)
+				discover(nearby);
 		}
 
-		// Discover nearby rooms.
-		for (Direction dir : Direction.values())
-			try {
-				getRoom(offsetLocation(location, dir.getOffset())).discover();
-			} catch (InvalidParameterException e) {
-				// Room does not exist, do not discover it.
-			}
-
 		getRoom().enter();
-		return true;
+	}
+
+	/**
+	 * Shows the player their current room, and informs them of any enemies in
+	 * it.
+	 */
+	public void showRoom() {
+		Room room = getRoom();
+		EventBus events = context.getEvents();
+		if (events.wants(RoomShown.class))
+			events.publish(new RoomShown(this, room));
+		// Inform the player about any enemies.
+		if (room.hasEnemies() && events.wants(EnemiesEncountered.class))
+			events.publish(new EnemiesEncountered(room, room.getEnemies()));
 	}
 
 	/**
 	 * @return the room at the player's current location.
 	 */
 	public Room getRoom() {
-		return getRoom(playerLocation.width, playerLocation.height);
+		return getRoom(playerRoom);
 	}
 
 	/**
+	 * Gets the room with the given id, generating it unless it has changed
+	 * since it was generated. A generated room is kept from the first time
+	 * its contents change.
+	 *
+	 * @param id id of the desired room.
+	 * @return the room with the specified id, or null no room is found.
+	 */
+	public Room getRoom(int id) {
+		if (!roomExists(id))
+			return null;
+		Room room = rooms.get(id);
+		if (room == null) {
+			room = generateRoom(id);
+			room.setChangeListener(changed -> rooms.put(id, changed));
+		}
+		return room;
+	}
+
+	/**
+	 * Gets the room at the specified location, generating it unless it has
+	 * changed since it was generated.
+	 *
 	 * @param x x coordinate of the desired room
 	 * @param y y coordinate of the desired room
 	 * @return the room at the specified location, or null no room is found.
 	 */
 	public Room getRoom(int x, int y) {
-		return rooms[x][y];
+		return getRoom(getRoomId(x, y));
 	}
 
 	/**
+	 * Gets the room at the specified location, generating it unless it has
+	 * changed since it was generated.
+	 *
 	 * @param location location of the desired room.
 	 * @return the room at the specified location, or null no room is found.
 	 */
 	public Room getRoom(Dimension location) {
-		return rooms[location.width][location.height];
+		return getRoom(getRoomId(location));
 	}
 
 	/**
@@ -331,6 +592,93 @@ public class FloorLayout {
 		return playerLocation;
 	}
 
+	/**
+	 * @return the id of the room the player is in.
+	 */
+	public int getPlayerRoom() {
+		return playerRoom;
+	}
+
+	/**
+	 * @return the id of the room with the stairs down to the next floor.
+	 */
+	public int getStairsRoom() {
+		return stairsRoom;
+	}
+
+	/**
+	 * @return true if the player is in the room with the stairs down.
+	 */
+	public boolean onStairs() {
+		return playerRoom == stairsRoom;
+	}
+
+	/**
+	 * The stairs are only found by searching the room they are in, so the
+	 * player may only descend once it has been searched.
+	 *
+	 * @return true if the player is on the stairs down, and can descend.
+	 */
+	public boolean canDescend() {
+		return onStairs() && roomSearched(playerRoom);
+	}
+
+	/**
+	 * @return the path finder for routes between rooms on this floor.
+	 */
+	public PathFinder getPathFinder() {
+		return pathFinder;
+	}
+
+	/**
+	 * @return the context of the game this floor belongs to.
+	 */
+	public GameContext getContext() {
+		return context;
+	}
+
+	// Whole floor queries.
+
+	/**
+	 * Finds the first discovered room at or after the given room id. Rooms
+	 * are checked 64 at a time, so iterating over the discovered rooms costs
+	 * little more than the number of rooms discovered.
+	 *
+	 * @param id id to start searching from.
+	 * @return the id of the next discovered room, or NO_ROOM if there is none.
+	 */
+	public int nextDiscoveredRoom(int id) {
+		return store.nextSet(RoomStore.Flag.DISCOVERED, id);
+	}
+
+	/**
+	 * @return true if any room on the floor has not yet been discovered.
+	 */
+	public boolean hasUndiscoveredRooms() {
+		return store.nextClear(RoomStore.Flag.DISCOVERED, 0) != NO_ROOM;
+	}
+
+	/**
+	 * @return the number of rooms on the floor that have been discovered.
+	 */
+	public int getDiscoveredRoomCount() {
+		return store.count(RoomStore.Flag.DISCOVERED);
+	}
+
+	/**
+	 * @return the width of the floor, in rooms.
+	 */
+	public int getWidth() {
+		return store.getWidth();
+	}
+
+	/**
+	 * @return the height of the floor, in rooms.
+	 */
+	public int getHeight() {
+		return store.getHeight();
+	}
+
 	/**
 	 * @return the floor number of this floor.
 	 */
@@ -339,27 +687,24 @@ public class FloorLayout {
 	}
 
 	/**
-	 * Sets the view to be updated when events occur.
-	 *
-	 * @param view view to be updated.
+	 * Releases anything the floor holds outside the heap, such as the file its
+	 * rooms are paged to, along with the enemy profiles shared for the floor.
+	 * The floor must not be used afterwards, though closing it again does
+	 * nothing.
 	 */
-	public void setView(GUI view) {
-		// Set the view.
-		this.view = view;
-		for (Room[] roomRow : rooms)
-			for (Room room : roomRow)
-				room.setView(view);
-
-		// Update the view.
-		view.setBackgroundImage(BackgroundImage.ROOM);
-		view.clearForeground();
+	public void close() {
+		if (spawnTable == null)
+			return;
+		store.close();
+		context.getEnemies().release(floorNum);
+		spawnTable = null;
 	}
 
 	/**
 	 * @return true if the player is in combat, or else false.
 	 */
 	public boolean inCombat() {
-		return !getRoom().getEnemies().isEmpty();
+		return getEnemyCount(playerRoom) != 0;
 	}
 
 }
@@ -0,0 +1,223 @@
+package com.model.layout;
+
+import java.awt.Dimension;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.model.GameContext;
+
+/**
+ * Builds the next floor on a background thread while the player explores the
+ * current one, so that descending rarely has to wait for generation.
+ *
+ * At most one floor is built ahead at a time, and floors estimated to need
+ * more memory than the budget are left to be built when they are needed.
+ * Floors built ahead publish nothing until they are taken and shown. As floors
+ * depend only on the game's seed, a floor built ahead is the same as one built
+ * on demand. A floor discarded before it is taken is always closed, even if it
+ * was still being built.
+ *
+ * @author Christopher
+ *
+ */
+public final class FloorPrefetcher {
+
+	/* Default memory budget, in bytes, for a floor built ahead. */
+	private static final long DEFAULT_BUDGET = 256L << 20;
+
+	/* The game the floors belong to. */
+	private final GameContext context;
+	/* The most memory, in bytes, a floor built ahead may use. */
+	private final long memoryBudget;
+	/* Thread floors are built on. */
+	private final ExecutorService executor;
+
+	/* The floor being built ahead, or null if there is none. */
+	private Future<FloorLayout> pending;
+	private Build pendingBuild;
+	/* Floor number and starting location of the floor being built ahead. */
+	private int pendingFloor;
+	private Dimension pendingLocation;
+
+	/**
+	 * Creates a prefetcher for floors of the given game, with the default
+	 * memory budget.
+	 *
+	 * @param context the context of the game the floors belong to.
+	 */
+	public FloorPrefetcher(GameContext context) {
+		this(context, DEFAULT_BUDGET);
+	}
+
+	/**
+	 * Creates a prefetcher for floors of the given game.
+	 *
+	 * @param context the context of the game the floors belong to.
+	 * @param memoryBudget the most memory, in bytes, a floor built ahead may
+	 *            use.
+	 */
+	public FloorPrefetcher(GameContext context, long memoryBudget) {
+		this.context = context;
+		this.memoryBudget = memoryBudget;
+		executor = Executors.newSingleThreadExecutor(task -> {
+			Thread thread = new Thread(task, "Floor prefetcher");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+	}
+
+	/**
+	 * Starts building the given floor in the background, replacing any floor
+	 * already being built ahead. Does nothing if the floor would exceed the
+	 * memory budget.
+	 *
+	 * @param floorNumber the floor number to be built.
+	 * @param playerLocation the location the player will start from.
+	 * @return true if the floor is being built, else false.
+	 */
+	public synchronized boolean prefetch(int floorNumber,
+			Dimension playerLocation) {
+		cancel();
+		if (estimateMemory(floorNumber) > memoryBudget)
+			return false;
+		Dimension location = new Dimension(playerLocation);
+		pendingFloor = floorNumber;
+		pendingLocation = location;
+		pendingBuild = new Build(floorNumber, location);
+		pending = executor.submit(pendingBuild);
+		return true;
+	}
+
+	/**
+	 * Gets the given floor, waiting for it if it is still being built ahead,
+	 * or building it now if it was not. Either way, the floor is no longer
+	 * held by the prefetcher.
+	 *
+	 * @param floorNumber the floor number wanted.
+	 * @param playerLocation the location the player will start from.
+	 * @return the floor layout.
+	 */
+	public synchronized FloorLayout take(int floorNumber,
+			Dimension playerLocation) {
+		if (pending != null && pendingFloor == floorNumber
+				&& pendingLocation.equals(playerLocation)) {
+			Future<FloorLayout> floor = pending;
+			Build build = pendingBuild;
+			pending = null;
+			pendingBuild = null;
+			try {
+				return floor.get();
+			} catch (InterruptedException e) {
+				// The floor is built again below, so this one is discarded.
+				build.discard();
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Floor generation failed.",
+						e.getCause());
+			}
+		}
+		cancel();
+		return new FloorLayout(floorNumber, playerLocation, context);
+	}
+
+	/**
+	 * Stops building any floor ahead, and discards it.
+	 */
+	public synchronized void cancel() {
+		if (pending == null)
+			return;
+		// Generation cannot be interrupted, so a floor still being built is
+		// left to finish, and closes itself.
+		pending.cancel(false);
+		pendingBuild.discard();
+		pending = null;
+		pendingBuild = null;
+	}
+
+	/**
+	 * @return true if a floor is being built ahead, or has been built and not
+	 *         yet taken.
+	 */
+	public synchronized boolean hasPending() {
+		return pending != null;
+	}
+
+	/**
+	 * @return true if a floor has been built ahead and can be taken without
+	 *         waiting.
+	 */
+	public synchronized boolean isReady() {
+		return pending != null && pending.isDone() && !pending.isCancelled();
+	}
+
+	/**
+	 * Stops building floors, and releases the background thread.
+	 */
+	public synchronized void shutdown() {
+		cancel();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Estimates the heap memory needed by a newly built floor: a few flag bits
+	 * and an enemy count for each room, unless the floor is large enough to
+	 * be paged to a file.
+	 *
+	 * @param floorNumber the floor number.
+	 * @return the estimated size of the floor, in bytes.
+	 */
+	public static long estimateMemory(int floorNumber) {
+		int side = floorNumber + 3;
+		return RoomStore.estimateHeap(side, side);
+	}
+
+	/*
+	 * Builds a floor ahead. If the floor is discarded, it is closed by
+	 * whichever of the build and the discard finishes last.
+	 */
+	private final class Build implements Callable<FloorLayout> {
+
+		private final int floorNumber;
+		private final Dimension location;
+		/* The floor, once built, until it is closed. */
+		private FloorLayout floor;
+		/* Whether the floor has been discarded. */
+		private boolean discarded;
+
+		Build(int floorNumber, Dimension location) {
+			this.floorNumber = floorNumber;
+			this.location = location;
+		}
+
+		@Override
+		public FloorLayout call() {
+			FloorLayout built = new FloorLayout(floorNumber, location, context);
+			synchronized (this) {
+				if (!discarded) {
+					floor = built;
+					return built;
+				}
+			}
+			built.close();
+			return null;
+		}
+
+		/* Discards the floor, closing it if it has already been built. */
+		void discard() {
+			FloorLayout built;
+			synchronized (this) {
+				discarded = true;
+				built = floor;
+				floor = null;
+			}
+			if (built != null)
+				built.close();
+		}
+
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.model.layout;
+
+import java.util.Arrays;
+
+/**
+ * Room state held in arrays on the heap: a bitset for each flag, and an array
+ * of enemy counts.
+ *
+ * @author Christopher
+ *
+ */
+final class HeapRoomStore extends RoomStore {
+
+	/* Bitsets of each flag, by Flag ordinal. */
+	private final long[][] bits;
+	/* Number of living enemies in each room. */
+	private final int[] enemyCounts;
+
+	/**
+	 * Creates storage for a floor of the given size, with every flag clear.
+	 *
+	 * @param width width of the floor, in rooms.
+	 * @param height height of the floor, in rooms.
+	 */
+	HeapRoomStore(int width, int height) {
+		super(width, height);
+		bits = new long[Flag.values().length][(size() + 63) >>> 6];
+		enemyCounts = new int[size()];
+	}
+
+	// Flags.
+
+	@Override
+	boolean get(Flag flag, int id) {
+		return (bits[flag.ordinal()][id >>> 6] & (1L << id)) != 0;
+	}
+
+	@Override
+	void set(Flag flag, int id, boolean value) {
+		long[] words = bits[flag.ordinal()];
+		long word = words[id >>> 6];
+		// Avoids branching, so random flags can be written quickly.
+		words[id >>> 6] = value ? word | (1L << id) : word & ~(1L << id);
+	}
+
+	@Override
+	void fill(Flag flag, boolean value) {
+		long[] words = bits[flag.ordinal()];
+		Arrays.fill(words, value ? -1L : 0);
+		// Keep the bits past the last room clear.
+		if (value && (size() & 63) != 0)
+			words[words.length - 1] = -1L >>> (64 - (size() & 63));
+	}
+
+	@Override
+	int nextSet(Flag flag, int from) {
+		if (from >= size())
+			return -1;
+		long[] words = bits[flag.ordinal()];
+		int index = from >>> 6;
+		// Ignore the rooms before the starting id.
+		long word = words[index] & (-1L << from);
+		while (word == 0) {
+			if (++index == words.length)
+				return -1;
+			word = words[index];
+		}
+		return (index << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	@Override
+	int nextClear(Flag flag, int from) {
+		if (from >= size())
+			return -1;
+		long[] words = bits[flag.ordinal()];
+		int index = from >>> 6;
+		long word = ~words[index] & (-1L << from);
+		while (word == 0) {
+			if (++index == words.length)
+				return -1;
+			word = ~words[index];
+		}
+		int id = (index << 6) + Long.numberOfTrailingZeros(word);
+		// Bits past the last room are always clear, but are not rooms.
+		return id < size() ? id : -1;
+	}
+
+	@Override
+	int count(Flag flag) {
+		int count = 0;
+		for (long word : bits[flag.ordinal()])
+			count += Long.bitCount(word);
+		return count;
+	}
+
+	// Enemy counts.
+
+	@Override
+	int getEnemyCount(int id) {
+		return enemyCounts[id];
+	}
+
+	@Override
+	void setEnemyCount(int id, int count) {
+		enemyCounts[id] = count;
+	}
+
+}
@@ -0,0 +1,321 @@
+package com.model.layout;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Room state paged to a temporary file, for floors too large to keep on the
+ * heap. The file is split into fixed size chunks of rooms, each holding the
+ * flag bitsets and enemy counts of its rooms, and chunks are memory mapped
+ * when used. Mapping only reserves address space; the operating system reads
+ * pages in as they are used, and may drop them again once they have been
+ * written back to the file.
+ *
+ * Only a limited number of chunks are kept hot, that is mapped. When another
+ * chunk is needed, a cold one is chosen by the clock algorithm, in which
+ * chunks used since the hand last passed are spared once. This approximates
+ * least recently used order with no more than a flag set on each access. The
+ * cold chunk is written back to the file and only weakly held, so its mapping
+ * and pages are released once it is garbage collected. If it is used again
+ * before then, the same mapping is made hot again, otherwise the chunk is
+ * mapped afresh, so a chunk never has more than one live mapping. As the
+ * player explores, the chunks around them stay hot. Every mapping of a chunk
+ * shares the file's pages, so every access sees the same data, even through a
+ * mapping that has just been cooled.
+ *
+ * The number of rooms with each flag set is kept for every chunk on the heap,
+ * so searches and counts skip chunks with nothing to find without mapping
+ * them.
+ *
+ * @author Christopher
+ *
+ */
+final class MappedRoomStore extends RoomStore {
+
+	/* Rooms in each chunk, as a power of two. */
+	private static final int CHUNK_SHIFT = 16;
+	private static final int CHUNK_ROOMS = 1 << CHUNK_SHIFT;
+	private static final int CHUNK_MASK = CHUNK_ROOMS - 1;
+	/* Bytes of each flag's bitset in a chunk. */
+	private static final int FLAG_BYTES = CHUNK_ROOMS / Byte.SIZE;
+	/* Bytes before the enemy counts in a chunk, and in the whole chunk. */
+	private static final int COUNTS_OFFSET = Flag.values().length
+			* FLAG_BYTES;
+	private static final int CHUNK_BYTES = COUNTS_OFFSET + CHUNK_ROOMS
+			* Integer.BYTES;
+	/* Default number of chunks kept hot at once. */
+	private static final int DEFAULT_HOT = 256;
+
+	/* The file the rooms are paged to, and the number of chunks in it. */
+	private final FileChannel channel;
+	private final int chunkCount;
+	/* Hot chunks, by chunk index, or null if a chunk is cold. */
+	private final AtomicReferenceArray<MappedByteBuffer> chunks;
+	/* Cold chunks that may still be mapped, by chunk index. */
+	private final AtomicReferenceArray<WeakReference<MappedByteBuffer>> cold;
+	/* Rooms with each flag set in each chunk, by flag then chunk index. */
+	private final AtomicIntegerArray setCounts;
+	/* 1 for each chunk used since the hand last passed it, by chunk index. */
+	private final AtomicIntegerArray referenced;
+	/*
+	 * Number of chunks that may be hot at once, and are hot. Chunks are only
+	 * made hot or cold, and the hand only moved, while holding the lock.
+	 */
+	private final int maxHot;
+	private int hotCount;
+	/* Chunk the clock hand points to. */
+	private int hand;
+
+	/**
+	 * Creates storage for a floor of the given size, with every flag clear,
+	 * keeping the default number of chunks hot.
+	 *
+	 * @param width width of the floor, in rooms.
+	 * @param height height of the floor, in rooms.
+	 */
+	MappedRoomStore(int width, int height) {
+		this(width, height, DEFAULT_HOT);
+	}
+
+	/**
+	 * Creates storage for a floor of the given size, with every flag clear.
+	 *
+	 * @param width width of the floor, in rooms.
+	 * @param height height of the floor, in rooms.
+	 * @param maxHot the number of chunks that may be hot at once.
+	 */
+	MappedRoomStore(int width, int height, int maxHot) {
+		super(width, height);
+		if (maxHot < 1)
+			throw new IllegalArgumentException(
+					"At least one chunk must be kept hot.");
+		chunkCount = (int) (((long) size() + CHUNK_MASK) >>> CHUNK_SHIFT);
+		this.maxHot = maxHot;
+		chunks = new AtomicReferenceArray<MappedByteBuffer>(chunkCount);
+		cold = new AtomicReferenceArray<WeakReference<MappedByteBuffer>>(
+				chunkCount);
+		referenced = new AtomicIntegerArray(chunkCount);
+		setCounts = new AtomicIntegerArray(Flag.values().length * chunkCount);
+		try {
+			// The file starts sparse, reading as zeros until written.
+			File file = File.createTempFile("floor", ".rooms");
+			file.deleteOnExit();
+			RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			raf.setLength((long) chunkCount * CHUNK_BYTES);
+			channel = raf.getChannel();
+			// The open channel keeps the file alive where this is allowed.
+			file.delete();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not create floor file.", e);
+		}
+	}
+
+	/*
+	 * Estimates the heap memory used for a floor with the given number of
+	 * rooms: the bookkeeping for each chunk, and the chunk objects while
+	 * mapped.
+	 */
+	static long estimateHeap(long rooms) {
+		long chunks = (rooms + CHUNK_MASK) >>> CHUNK_SHIFT;
+		return chunks * ((Flag.values().length + 1) * Integer.BYTES + 160);
+	}
+
+	// Chunks.
+
+	/* Gets the chunk with the given index, making it hot if need be. */
+	private ByteBuffer chunk(int index) {
+		ByteBuffer chunk = chunks.get(index);
+		if (chunk == null)
+			chunk = warm(index);
+		referenced.set(index, 1);
+		return chunk;
+	}
+
+	/*
+	 * Makes the chunk with the given index hot, mapping it unless its last
+	 * mapping is still alive, first cooling other chunks if too many are hot.
+	 */
+	private synchronized ByteBuffer warm(int index) {
+		MappedByteBuffer chunk = chunks.get(index);
+		if (chunk != null)
+			return chunk;
+		while (hotCount >= maxHot) {
+			int victim = hand;
+			hand = (hand + 1) % chunkCount;
+			MappedByteBuffer cooled = chunks.get(victim);
+			if (cooled == null || referenced.getAndSet(victim, 0) != 0)
+				continue;
+			// Write the chunk back, and hold it weakly so it can be unmapped.
+			cooled.force();
+			cold.set(victim, new WeakReference<MappedByteBuffer>(cooled));
+			chunks.set(victim, null);
+			hotCount--;
+		}
+		WeakReference<MappedByteBuffer> last = cold.getAndSet(index, null);
+		chunk = last == null ? null : last.get();
+		if (chunk == null) {
+			try {
+				chunk = channel.map(FileChannel.MapMode.READ_WRITE,
+						(long) index * CHUNK_BYTES, CHUNK_BYTES);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not map floor file.", e);
+			}
+			chunk.order(ByteOrder.nativeOrder());
+		}
+		chunks.set(index, chunk);
+		hotCount++;
+		return chunk;
+	}
+
+	/* Rooms on the floor in the chunk with the given index. */
+	private int roomsIn(int index) {
+		return Math.min(CHUNK_ROOMS, size() - (index << CHUNK_SHIFT));
+	}
+
+	/* Byte offset, within its chunk, of the word holding a room's flag. */
+	private static int wordOffset(Flag flag, int id) {
+		return flag.ordinal() * FLAG_BYTES + ((id & CHUNK_MASK) >>> 6 << 3);
+	}
+
+	// Flags.
+
+	@Override
+	boolean get(Flag flag, int id) {
+		ByteBuffer chunk = chunk(id >>> CHUNK_SHIFT);
+		return (chunk.getLong(wordOffset(flag, id)) & (1L << id)) != 0;
+	}
+
+	@Override
+	void set(Flag flag, int id, boolean value) {
+		int index = id >>> CHUNK_SHIFT;
+		ByteBuffer chunk = chunk(index);
+		int offset = wordOffset(flag, id);
+		long word = chunk.getLong(offset);
+		long changed = value ? word | (1L << id) : word & ~(1L << id);
+		if (changed == word)
+			return;
+		chunk.putLong(offset, changed);
+		setCounts.addAndGet(flag.ordinal() * chunkCount + index,
+				value ? 1 : -1);
+	}
+
+	@Override
+	void fill(Flag flag, boolean value) {
+		int start = flag.ordinal() * FLAG_BYTES;
+		for (int index = 0; index < chunkCount; index++) {
+			int counter = flag.ordinal() * chunkCount + index;
+			// Chunks with the flag already clear need not be mapped.
+			if (!value && setCounts.get(counter) == 0)
+				continue;
+			ByteBuffer chunk = chunk(index);
+			int rooms = roomsIn(index);
+			setCounts.set(counter, value ? rooms : 0);
+			for (int word = 0; word < FLAG_BYTES / 8; word++) {
+				int first = word << 6;
+				long bits = 0;
+				// Keep the bits past the last room clear.
+				if (value && first < rooms)
+					bits = rooms - first >= 64 ? -1L
+							: -1L >>> (64 - (rooms - first));
+				chunk.putLong(start + (word << 3), bits);
+			}
+		}
+	}
+
+	@Override
+	int nextSet(Flag flag, int from) {
+		return next(flag, from, false);
+	}
+
+	@Override
+	int nextClear(Flag flag, int from) {
+		int id = next(flag, from, true);
+		// Bits past the last room are always clear, but are not rooms.
+		return id < size() ? id : -1;
+	}
+
+	/* Finds the first room at or after the given id with the flag as given. */
+	private int next(Flag flag, int from, boolean clear) {
+		if (from < 0 || from >= size())
+			return -1;
+		int start = flag.ordinal() * FLAG_BYTES;
+		int index = from >>> CHUNK_SHIFT;
+		int word = (from & CHUNK_MASK) >>> 6;
+		// Ignore the rooms before the starting id.
+		long mask = -1L << from;
+		for (; index < chunkCount; index++, word = 0) {
+			// Skip chunks with nothing to find, without mapping them.
+			int set = setCounts.get(flag.ordinal() * chunkCount + index);
+			if (set == (clear ? roomsIn(index) : 0)) {
+				mask = -1L;
+				continue;
+			}
+			ByteBuffer chunk = chunk(index);
+			for (; word < FLAG_BYTES / 8; word++, mask = -1L) {
+				long bits = chunk.getLong(start + (word << 3));
+				bits = (clear ? ~bits : bits) & mask;
+				if (bits != 0)
+					return (index << CHUNK_SHIFT) + (word << 6)
+							+ Long.numberOfTrailingZeros(bits);
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	int count(Flag flag) {
+		int count = 0;
+		for (int index = 0; index < chunkCount; index++)
+			count += setCounts.get(flag.ordinal() * chunkCount + index);
+		return count;
+	}
+
+	// Enemy counts.
+
+	@Override
+	int getEnemyCount(int id) {
+		return chunk(id >>> CHUNK_SHIFT).getInt(COUNTS_OFFSET
+				+ (id & CHUNK_MASK) * Integer.BYTES);
+	}
+
+	@Override
+	void setEnemyCount(int id, int count) {
+		chunk(id >>> CHUNK_SHIFT).putInt(COUNTS_OFFSET + (id & CHUNK_MASK)
+				* Integer.BYTES, count);
+	}
+
+	// Layout.
+
+	/**
+	 * @return the number of chunks currently hot.
+	 */
+	synchronized int getHotChunks() {
+		return hotCount;
+	}
+
+	@Override
+	synchronized void close() {
+		// Mappings last until they are garbage collected, and keep no file
+		// handle open.
+		for (int index = 0; index < chunkCount; index++) {
+			chunks.set(index, null);
+			cold.set(index, null);
+		}
+		hotCount = 0;
+		try {
+			channel.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not close floor file.", e);
+		}
+	}
+
+}
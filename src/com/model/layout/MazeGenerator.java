@@ -0,0 +1,387 @@
+package com.model.layout;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.model.GameRandom;
+
+/**
+ * Decides which doors of a floor are open, and which are locked, forming the
+ * walls of a maze. Every room can always be reached from every other.
+ *
+ * Mazes are built a row at a time with Eller's algorithm, which is Kruskal's
+ * union-find maze restricted to one row of rooms: each row joins some of its
+ * neighbouring sets, then carries each set up to the next row through at
+ * least one open door. Only the sets of the current row are tracked, so
+ * generation takes linear time, and memory in proportion to the width of the
+ * floor. Doors are written straight into the floor's door bitsets.
+ *
+ * Large floors are split into bands of rows, each carved as a separate maze
+ * on a fork/join pool and joined to the band above by a single door. Bands
+ * depend only on the floor's size, and each draws from its own generator
+ * derived from the seed, so a floor is identical however many threads build
+ * it. Bands start on a bitset word boundary, so no two threads ever write to
+ * the same word.
+ *
+ * @author Christopher
+ *
+ */
+public final class MazeGenerator {
+
+	/**
+	 * The kinds of maze that can be generated.
+	 *
+	 * @author Christopher
+	 *
+	 */
+	public enum Style {
+		/**
+		 * Every door is open.
+		 */
+		OPEN,
+		/**
+		 * A perfect maze, with exactly one route between any two rooms.
+		 */
+		PERFECT,
+		/**
+		 * A perfect maze with every dead end opened into a neighbouring room,
+		 * giving loops and several routes between most rooms.
+		 */
+		BRAIDED
+	}
+
+	/* Approximate number of rooms in each band. */
+	private static final int BAND_ROOMS = 1 << 20;
+
+	/* The kind of maze to generate. */
+	private final Style style;
+
+	/**
+	 * Creates a generator for the given kind of maze.
+	 *
+	 * @param style the kind of maze to generate.
+	 */
+	public MazeGenerator(Style style) {
+		this.style = style;
+	}
+
+	/**
+	 * @return the kind of maze generated.
+	 */
+	public Style getStyle() {
+		return style;
+	}
+
+	// Generation.
+
+	/*
+	 * Fills in the doors of every room in the store, in parallel on the common
+	 * fork/join pool.
+	 */
+	void generate(RoomStore store, long seed) {
+		generate(store, seed, ForkJoinPool.commonPool());
+	}
+
+	/*
+	 * Fills in the doors of every room in the store, in parallel on the given
+	 * pool. The result depends only on the seed and the store's size.
+	 */
+	void generate(RoomStore store, long seed, ForkJoinPool pool) {
+		// Start with every door locked, and open the maze's passages.
+		boolean walls = style != Style.OPEN;
+		store.fill(RoomStore.Flag.NORTH_LOCKED, walls);
+		store.fill(RoomStore.Flag.EAST_LOCKED, walls);
+		if (!walls)
+			return;
+		int rows = getBandHeight(store.getWidth());
+		int bands = (store.getHeight() + rows - 1) / rows;
+		long mixed = GameRandom.mix(seed);
+		pool.invoke(new Bands(store, mixed, rows, 0, bands, 1, false));
+		if (style == Style.BRAIDED) {
+			// Braiding a band may open doors stored in the band below, so
+			// neighbouring bands are never braided at the same time.
+			pool.invoke(new Bands(store, mixed, rows, 0, bands, 2, true));
+			pool.invoke(new Bands(store, mixed, rows, 1, bands, 2, true));
+		}
+	}
+
+	/*
+	 * Returns the number of rows in each band of a floor of the given width,
+	 * such that each band starts at the beginning of a bitset word.
+	 */
+	private static int getBandHeight(int width) {
+		// Rows needed for a band to span a whole number of words.
+		int align = 64 >>> Math.min(Integer.numberOfTrailingZeros(width), 6);
+		int rows = Math.max(1, BAND_ROOMS / width);
+		return (rows + align - 1) / align * align;
+	}
+
+	/*
+	 * Splits a range of bands in half until a single band is left, then
+	 * carves or braids it. Only every step-th band in the range is visited.
+	 */
+	private static class Bands extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final RoomStore store;
+		private final long seed;
+		private final int rows;
+		private final int first;
+		private final int last;
+		private final int step;
+		private final boolean braid;
+
+		Bands(RoomStore store, long seed, int rows, int first, int last,
+				int step, boolean braid) {
+			this.store = store;
+			this.seed = seed;
+			this.rows = rows;
+			this.first = first;
+			this.last = last;
+			this.step = step;
+			this.braid = braid;
+		}
+
+		@Override
+		protected void compute() {
+			int count = (last - first + step - 1) / step;
+			if (count <= 1) {
+				if (count == 1)
+					runBand(first);
+				return;
+			}
+			int middle = first + count / 2 * step;
+			Bands lower = new Bands(store, seed, rows, first, middle, step,
+					braid);
+			lower.fork();
+			new Bands(store, seed, rows, middle, last, step, braid).compute();
+			lower.join();
+		}
+
+		/* Carves or braids the band with the given index. */
+		private void runBand(int index) {
+			int top = Math.min(store.getHeight(), (index + 1) * rows);
+			// Carving and braiding draw from separate generators.
+			long key = 2L * index + (braid ? 1 : 0);
+			Band band = new Band(store, index * rows, top,
+					new SplittableRandom(GameRandom.mix(seed + (key + 1)
+							* 0x9e3779b97f4a7c15L)));
+			if (braid)
+				band.braid();
+			else
+				band.carve();
+		}
+
+	}
+
+	/*
+	 * The rows of a floor from one row up to, but not including, another,
+	 * along with the working state needed to carve them.
+	 */
+	private static final class Band {
+
+		/* The floor, and its width. */
+		private final RoomStore store;
+		private final int width;
+		/* The first row of the band, and the first row above it. */
+		private final int bottom;
+		private final int top;
+
+		/* Generator for the band, and unused random bits drawn from it. */
+		private final SplittableRandom random;
+		private long bits;
+		private int bitsLeft;
+
+		/*
+		 * Sets of the rooms in the current row, and in the next. Sets are
+		 * numbered below the width of the floor.
+		 */
+		private int[] set;
+		private int[] next;
+		/* Union-find parent of each set in the current row. */
+		private int[] parent;
+		/* Per set scratch space: rooms seen, and a room with a door north. */
+		private int[] seen;
+		private int[] through;
+		/* Whether each set has a door north, and which rooms have one. */
+		private boolean[] carried;
+		private boolean[] openNorth;
+
+		Band(RoomStore store, int bottom, int top, SplittableRandom random) {
+			this.store = store;
+			this.bottom = bottom;
+			this.top = top;
+			this.random = random;
+			width = store.getWidth();
+		}
+
+		/*
+		 * Carves a perfect maze with Eller's algorithm, then joins it to the
+		 * band above through a random door.
+		 */
+		void carve() {
+			set = new int[width];
+			next = new int[width];
+			parent = new int[width];
+			seen = new int[width];
+			through = new int[width];
+			carried = new boolean[width];
+			openNorth = new boolean[width];
+			for (int x = 0; x < width; x++)
+				set[x] = x;
+			for (int y = bottom; y < top - 1; y++) {
+				joinRow(y * width, false);
+				carryRow(y * width);
+			}
+			int last = (top - 1) * width;
+			joinRow(last, true);
+			if (top < store.getHeight())
+				store.set(RoomStore.Flag.NORTH_LOCKED,
+						last + random.nextInt(width), false);
+		}
+
+		/*
+		 * Joins neighbouring rooms of different sets in a row at random, or
+		 * all of them in the last row. Random choices are applied without
+		 * branching, as mispredicted branches would otherwise dominate the
+		 * cost.
+		 */
+		private void joinRow(int row, boolean lastRow) {
+			for (int i = 0; i < width; i++)
+				parent[i] = i;
+			// Joined sets take the root of the set to their west, keeping runs
+			// of joined rooms one step deep.
+			int west = find(parent, set[0]);
+			for (int x = 0; x < width - 1; x++) {
+				int east = find(parent, set[x + 1]);
+				boolean join = west != east & (lastRow | nextBit());
+				parent[east] = join ? west : east;
+				store.set(RoomStore.Flag.EAST_LOCKED, row + x, !join);
+				west = join ? west : east;
+			}
+		}
+
+		/*
+		 * Opens doors north out of a row at random, at least one for each set,
+		 * and numbers the sets of the next row.
+		 */
+		private void carryRow(int row) {
+			Arrays.fill(carried, false);
+			for (int x = 0; x < width; x++) {
+				int root = find(parent, set[x]);
+				boolean open = nextBit();
+				set[x] = root;
+				openNorth[x] = open;
+				carried[root] |= open;
+				// Note a room of each set with an open door.
+				through[root] = open ? x : through[root];
+			}
+			// Sets with no open door get one in a room picked uniformly, by
+			// reservoir sampling.
+			Arrays.fill(seen, 0);
+			for (int x = 0; x < width; x++) {
+				int root = set[x];
+				if (!carried[root]
+						&& (++seen[root] == 1 || random.nextInt(seen[root]) == 0))
+					through[root] = x;
+			}
+
+			// Sets are numbered by the column of a room they pass north
+			// through, and rooms starting a new set by their own column, so no
+			// two sets share a number.
+			for (int x = 0; x < width; x++) {
+				int root = set[x];
+				boolean open = openNorth[x]
+						| (!carried[root] & through[root] == x);
+				store.set(RoomStore.Flag.NORTH_LOCKED, row + x, !open);
+				next[x] = open ? through[root] : x;
+			}
+			int[] swap = set;
+			set = next;
+			next = swap;
+		}
+
+		/*
+		 * Opens an extra door out of every dead end, chosen at random. Doors
+		 * south out of the bottom row are stored in the band below, which is
+		 * never braided at the same time as this one.
+		 */
+		void braid() {
+			int height = store.getHeight();
+			int[] locked = new int[4];
+			for (int y = bottom; y < top; y++)
+				for (int x = 0; x < width; x++) {
+					int id = y * width + x;
+					// Count the open doors, and list the locked ones.
+					int open = 0;
+					int lockedCount = 0;
+					if (y < height - 1) {
+						if (store.get(RoomStore.Flag.NORTH_LOCKED, id))
+							locked[lockedCount++] = 0;
+						else
+							open++;
+					}
+					if (y > 0) {
+						if (store.get(RoomStore.Flag.NORTH_LOCKED, id - width))
+							locked[lockedCount++] = 1;
+						else
+							open++;
+					}
+					if (x < width - 1) {
+						if (store.get(RoomStore.Flag.EAST_LOCKED, id))
+							locked[lockedCount++] = 2;
+						else
+							open++;
+					}
+					if (x > 0) {
+						if (store.get(RoomStore.Flag.EAST_LOCKED, id - 1))
+							locked[lockedCount++] = 3;
+						else
+							open++;
+					}
+					if (open != 1 || lockedCount == 0)
+						continue;
+					switch (locked[random.nextInt(lockedCount)]) {
+					case 0:
+						store.set(RoomStore.Flag.NORTH_LOCKED, id, false);
+						break;
+					case 1:
+						store.set(RoomStore.Flag.NORTH_LOCKED, id - width, false);
+						break;
+					case 2:
+						store.set(RoomStore.Flag.EAST_LOCKED, id, false);
+						break;
+					default:
+						store.set(RoomStore.Flag.EAST_LOCKED, id - 1, false);
+						break;
+					}
+				}
+		}
+
+		/* Draws a single random bit, 64 bits at a time. */
+		private boolean nextBit() {
+			if (bitsLeft == 0) {
+				bits = random.nextLong();
+				bitsLeft = 64;
+			}
+			bitsLeft--;
+			boolean bit = (bits & 1) != 0;
+			bits >>>= 1;
+			return bit;
+		}
+
+	}
+
+	/* Finds the root of a set, halving the path on the way. */
+	private static int find(int[] parent, int set) {
+		while (parent[set] != set) {
+			parent[set] = parent[parent[set]];
+			set = parent[set];
+		}
+		return set;
+	}
+
+}
@@ -0,0 +1,168 @@
+package com.model.layout;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Finds the shortest routes between rooms on a floor. Routes only pass
+ * through rooms the player has discovered, and never through locked doors.
+ *
+ * The finder searches breadth first from a single room, normally the
+ * player's, noting the distance of each room reached and the direction it was
+ * reached from. The search stops as soon as the room asked for is reached, and
+ * carries on from where it left off if a further room is asked for, so
+ * routes from the same room cost at most one search between them. Only
+ * discovered rooms are ever visited or stored, so the search and its memory
+ * grow with the part of the floor explored, not the size of the floor.
+ *
+ * Discovering rooms and changing doors only happens as the player moves or
+ * acts, which normally moves the search's starting room anyway, so any change
+ * to the floor simply starts the search again the next time it is needed.
+ *
+ * @author Christopher
+ *
+ */
+public final class PathFinder {
+
+	/* Low bits of each reached room's entry, holding the arrival direction. */
+	private static final int DIRECTION_BITS = 2;
+	private static final int DIRECTION_MASK = (1 << DIRECTION_BITS) - 1;
+	/* Directions, by ordinal. */
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	/* The floor routes are found on. */
+	private final FloorLayout layout;
+
+	/* The room distances are measured from, or NO_ROOM if there is none. */
+	private int source;
+	/* Whether the search must start again before it is used. */
+	private boolean stale;
+	/*
+	 * Rooms reached so far, by room id, each with its distance from the source
+	 * shifted above the ordinal of the direction it was entered in.
+	 */
+	private final Map<Integer, Integer> reached;
+	/* Rooms reached but not yet expanded, from head up to tail. */
+	private int[] queue;
+	private int head;
+	private int tail;
+
+	/**
+	 * Creates a path finder for the given floor. No work is done until a
+	 * route is first asked for.
+	 *
+	 * @param layout the floor routes will be found on.
+	 */
+	PathFinder(FloorLayout layout) {
+		this.layout = layout;
+		source = FloorLayout.NO_ROOM;
+		reached = new HashMap<Integer, Integer>();
+		queue = new int[16];
+	}
+
+	// Routes.
+
+	/**
+	 * Gets the number of moves needed to get from one room to another.
+	 *
+	 * @param from id of the room to start from.
+	 * @param to id of the room to be reached.
+	 * @return the number of moves on the shortest route, or -1 if the room
+	 *         cannot be reached.
+	 */
+	public int getDistance(int from, int to) {
+		if (!traversable(to))
+			return -1;
+		prepare(from);
+		// Search on until the room is reached, or there is nowhere left.
+		Integer entry;
+		while ((entry = reached.get(to)) == null && head < tail)
+			expand(queue[head++]);
+		return entry == null ? -1 : entry >>> DIRECTION_BITS;
+	}
+
+	/**
+	 * Finds the shortest route from one room to another.
+	 *
+	 * @param from id of the room to start from.
+	 * @param to id of the room to be reached.
+	 * @return the direction of each move along the route, in order, or null if
+	 *         the room cannot be reached.
+	 */
+	public Direction[] findPath(int from, int to) {
+		int length = getDistance(from, to);
+		if (length < 0)
+			return null;
+		// Walk back from the target to the source.
+		Direction[] path = new Direction[length];
+		int room = to;
+		for (int i = length - 1; i >= 0; i--) {
+			path[i] = DIRECTIONS[reached.get(room) & DIRECTION_MASK];
+			room = layout.getNeighbour(room, path[i].opposite());
+		}
+		return path;
+	}
+
+	// Updates from the floor.
+
+	/*
+	 * Called when a room is discovered or a door changes, either of which may
+	 * change the routes found so far.
+	 */
+	void floorChanged() {
+		stale = true;
+	}
+
+	// Search.
+
+	/* Makes sure the search starts from the given room. */
+	private void prepare(int from) {
+		if (from == source && !stale)
+			return;
+		source = from;
+		stale = false;
+		reached.clear();
+		head = 0;
+		tail = 0;
+		if (!traversable(from))
+			return;
+		reached.put(from, 0);
+		queue[tail++] = from;
+	}
+
+	/*
+	 * Reaches every unreached neighbour of a room. Rooms are reached in order
+	 * of distance, so the first distance noted for each is the shortest.
+	 */
+	private void expand(int room) {
+		int next = (reached.get(room) >>> DIRECTION_BITS) + 1;
+		for (Direction dir : DIRECTIONS) {
+			if (!connected(room, dir))
+				continue;
+			int neighbour = layout.getNeighbour(room, dir);
+			if (reached.putIfAbsent(neighbour, next << DIRECTION_BITS
+					| dir.ordinal()) != null)
+				continue;
+			if (tail == queue.length)
+				queue = Arrays.copyOf(queue, tail * 2);
+			queue[tail++] = neighbour;
+		}
+	}
+
+	/*
+	 * Returns true if a route can pass from a room through the door in the
+	 * given direction.
+	 */
+	private boolean connected(int id, Direction dir) {
+		int neighbour = layout.getNeighbour(id, dir);
+		return traversable(id) && traversable(neighbour)
+				&& !layout.doorLocked(dir, id);
+	}
+
+	/* Returns true if a route may pass through the room. */
+	private boolean traversable(int id) {
+		return layout.roomDiscovered(id);
+	}
+
+}
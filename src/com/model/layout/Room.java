@@ -1,82 +1,114 @@
 package com.model.layout;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.model.GameContext;
+import com.model.entity.DeathListener;
 import com.model.entity.Entity;
 import com.model.entity.npc.Enemy;
+import com.model.entity.npc.EnemyHorde;
 import com.model.entity.npc.EnemyProfile;
-import com.view.GUI;
+import com.model.event.EnemyRevealed;
+import com.model.event.EventBus;
+import com.model.event.RoomSearched;
+import com.utils.StatValue;
 
 /**
  * A representation of a room in the game. This can contain various objects,
  * enemies, and room specific effects.
  *
+ * The room's flags and enemy count are kept in the RoomStore of the floor it
+ * belongs to, so the room itself only holds its contents. A floor can be told
+ * the first time those contents change, so that it only needs to keep rooms
+ * that differ from how they were generated.
+ *
  * @author Christopher
  *
  */
 public class Room {
 
-	/* Whether or not the room has been searched. */
-	private boolean searched;
-	/* Whether or not the player has been next to this room. */
-	private boolean discovered;
-	/* Whether or not the player has entered this room. */
-	private boolean entered;
+	/* Storage holding the room's flags and enemy count. */
+	private final RoomStore store;
+	/* Id of this room within the store. */
+	private final int id;
 
-	/* Enemies within the room. */
+	/* Living enemies within the room, and a read only view of them. */
 	private List<Enemy> enemies;
+	private List<Enemy> enemiesView;
+	/* Removes enemies from the room as they die. */
+	private final DeathListener deathListener = (entity, source) -> {
+		enemies.remove(entity);
+		updateEnemyCount();
+		changed();
+	};
 
 	/* Objects found by searching this room. */
 	private List<Entity> containedObjects;
 
-	/* View to be notified by room events. */
-	private GUI view;
+	/* The game this room belongs to. */
+	private GameContext context;
+	/* Told the first time the room's contents change, or null. */
+	private Consumer<Room> changeListener;
 
 	/**
-	 * Constructs a new empty room with no special effects.
+	 * Creates a new empty room with no special effects, belonging to the given
+	 * game.
+	 *
+	 * @param context the context of the game the room belongs to.
 	 */
-	public Room() {
-		this(null);
+	public Room(GameContext context) {
+		this(new HeapRoomStore(1, 1), 0, context);
 	}
 
-	/**
-	 * Creates a new room that will be notified by the given GUI.
-	 *
-	 * @param view view to be notified.
+	/*
+	 * Creates a new empty room whose flags are kept in the given store, as
+	 * part of a floor.
 	 */
-	public Room(GUI view) {
+	Room(RoomStore store, int id, GameContext context) {
+		if (context == null)
+			throw new IllegalArgumentException("Rooms must belong to a game.");
+		this.store = store;
+		this.id = id;
+		this.context = context;
 		enemies = new ArrayList<Enemy>();
+		enemiesView = Collections.unmodifiableList(enemies);
 		containedObjects = new ArrayList<Entity>();
-		searched = false;
-
-		// TODO: Replace with actual enemy generation.
-
-		EnemyProfile enemyStats = new EnemyProfile();
-		enemyStats.name = "goblin";
-		enemyStats.maxHP = BigInteger.valueOf(100);
-		enemyStats.maxMana = BigInteger.valueOf(100);
-		enemyStats.attackDamage = BigInteger.valueOf(20);
-		enemyStats.xpValue = BigInteger.valueOf(5);
-
-		this.view = view;
-		addEnemy(new Enemy(enemyStats, this.view));
-		hideEntity(new Enemy(enemyStats, this.view));
 	}
 
 	// Enemies and entities.
 
 	/**
 	 * Adds an enemy to the room. This will be ignored if the enemy is already
-	 * in the room.
+	 * in the room, or is dead.
 	 *
 	 * @param enemy enemy to be added.
 	 */
 	public void addEnemy(Enemy enemy) {
+		enemy.setContext(context);
+		track(enemy);
+	}
+
+	/*
+	 * Lists a living enemy in the room, to be removed again when it dies.
+	 * Returns false if the enemy was dead or already listed.
+	 */
+	private boolean track(Enemy enemy) {
+		if (enemy.isDead() || enemies.contains(enemy))
+			return false;
+		enemy.setDeathListener(deathListener);
 		enemies.add(enemy);
+		updateEnemyCount();
+		changed();
+		return true;
+	}
+
+	/* Records the number of living enemies in the floor's store. */
+	private void updateEnemyCount() {
+		store.setEnemyCount(id, enemies.size());
 	}
 
 	/**
@@ -85,7 +117,23 @@ public class Room {
 	 * @param enemies enemies to be added.
 	 */
 	public void addEnemies(Collection<Enemy> enemies) {
-		enemies.addAll(enemies);
+		for (Enemy enemy : enemies)
+			addEnemy(enemy);
+	}
+
+	/**
+	 * Adds the given number of enemies sharing a profile to the room. More
+	 * than one enemy is added as a single horde, so the cost of the room does
+	 * not grow with the number of enemies.
+	 *
+	 * @param profile the profile describing each enemy.
+	 * @param count number of enemies to be added.
+	 */
+	public void addEnemies(EnemyProfile profile, StatValue count) {
+		if (count.compareTo(StatValue.ONE) > 0)
+			addEnemy(new EnemyHorde(profile, count));
+		else if (count.signum() > 0)
+			addEnemy(new Enemy(profile));
 	}
 
 	/**
@@ -94,7 +142,9 @@ public class Room {
 	 * @param entity entity to be hidden.
 	 */
 	public void hideEntity(Entity entity) {
+		entity.setContext(context);
 		containedObjects.add(entity);
+		changed();
 	}
 
 	/**
@@ -103,18 +153,45 @@ public class Room {
 	 * @param entities entities to be added.
 	 */
 	public void hideEntities(Collection<Entity> entities) {
-		containedObjects.addAll(entities);
+		for (Entity entity : entities)
+			hideEntity(entity);
 	}
 
 	/**
-	 * @return a list of enemies in the room.
+	 * Gets the living enemies in the room. Enemies are removed as they die, so
+	 * the list is always up to date, but it cannot be changed directly.
+	 *
+	 * @return a read only view of the enemies in the room.
 	 */
 	public List<Enemy> getEnemies() {
-		Iterator<Enemy> enemyIterator = enemies.iterator();
-		while (enemyIterator.hasNext())
-			if (enemyIterator.next().isDead())
-				enemyIterator.remove();
-		return enemies;
+		return enemiesView;
+	}
+
+	/**
+	 * @return true if there are living enemies in the room.
+	 */
+	public boolean hasEnemies() {
+		return !enemies.isEmpty();
+	}
+
+	// Changes.
+
+	/*
+	 * Sets the listener to be told the first time the room's contents change
+	 * from now on, such as an enemy being added or killed, the room being
+	 * searched, or the player entering while enemies are here.
+	 */
+	void setChangeListener(Consumer<Room> listener) {
+		changeListener = listener;
+	}
+
+	/* Tells the change listener, if any, that the room has changed. */
+	private void changed() {
+		Consumer<Room> listener = changeListener;
+		if (listener == null)
+			return;
+		changeListener = null;
+		listener.accept(this);
 	}
 
 	// Flags
@@ -124,15 +201,18 @@ public class Room {
 	 * at least once by the player.
 	 */
 	public void enter() {
-		entered = true;
+		store.set(RoomStore.Flag.ENTERED, id, true);
 		discover();
+		// Enemies met here may be fought, which the room cannot see.
+		if (hasEnemies())
+			changed();
 	}
 
 	/**
 	 * @return true if the player has entered this room at least once.
 	 */
 	public boolean hasBeenEntered() {
-		return entered;
+		return store.get(RoomStore.Flag.ENTERED, id);
 	}
 
 	/**
@@ -140,14 +220,14 @@ public class Room {
 	 * by the player.
 	 */
 	public void discover() {
-		discovered = true;
+		store.set(RoomStore.Flag.DISCOVERED, id, true);
 	}
 
 	/**
 	 * @return true if the room has been discovered.
 	 */
 	public boolean hasBeenDiscovered() {
-		return discovered;
+		return store.get(RoomStore.Flag.DISCOVERED, id);
 	}
 
 	/**
@@ -156,17 +236,15 @@ public class Room {
 	 * @return entities found by the search.
 	 */
 	public List<Entity> search() {
-		searched = true;
-		if (containedObjects.isEmpty()) {
-			if (view != null)
-				view.displayMessage("Nothing was found.");
-		} else
-			for (Entity entity : containedObjects)
-				if (entity instanceof Enemy) {
-					enemies.add((Enemy) entity);
-					if (view != null)
-						view.displayMessage("A " + entity + " attacked!");
-				}
+		store.set(RoomStore.Flag.SEARCHED, id, true);
+		changed();
+		EventBus events = context.getEvents();
+		if (events.wants(RoomSearched.class))
+			events.publish(new RoomSearched(this, containedObjects.size()));
+		for (Entity entity : containedObjects)
+			if (entity instanceof Enemy && track((Enemy) entity)
+					&& events.wants(EnemyRevealed.class))
+				events.publish(new EnemyRevealed(this, (Enemy) entity));
 		return containedObjects;
 	}
 
@@ -174,19 +252,17 @@ public class Room {
 	 * @return true if the room has been searched, otherwise false.
 	 */
 	public boolean hasBeenSearched() {
-		return searched;
+		return store.get(RoomStore.Flag.SEARCHED, id);
 	}
 
 	/**
-	 * Sets the view notified by events caused by this rooms and members.
+	 * Gets the number of living enemies in the room, as kept in the floor's
+	 * store.
 	 *
-	 * @param view gui to be notified.
+	 * @return the number of enemies in the room.
 	 */
-	public void setView(GUI view) {
-		this.view = view;
-		for (Enemy enemy : enemies)
-			enemy.setView(view);
-		for (Entity entity : containedObjects)
-			entity.setView(view);
+	public int getEnemyCount() {
+		return store.getEnemyCount(id);
 	}
+
 }
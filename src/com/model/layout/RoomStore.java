@@ -0,0 +1,202 @@
+package com.model.layout;
+
+/**
+ * The per-room state of a floor, stored as one array per property rather than
+ * one object per room. Flags are packed into bitsets, 64 rooms to a word, and
+ * enemy counts are held alongside them, all indexed by room id. Rooms are
+ * numbered row by row from the bottom left, so id = y * width + x.
+ *
+ * Keeping the state together lets whole-floor questions, such as whether any
+ * rooms are left undiscovered, be answered a word at a time. Small floors are
+ * kept on the heap, while floors too large for it are paged to a file.
+ *
+ * @author Christopher
+ *
+ */
+abstract class RoomStore {
+
+	/**
+	 * The flags stored for each room.
+	 *
+	 * @author Christopher
+	 *
+	 */
+	enum Flag {
+		/** Whether the door on the north side of the room is locked. */
+		NORTH_LOCKED,
+		/** Whether the door on the east side of the room is locked. */
+		EAST_LOCKED,
+		/** Whether the room has been searched. */
+		SEARCHED,
+		/** Whether the player has been next to the room. */
+		DISCOVERED,
+		/** Whether the player has entered the room. */
+		ENTERED
+	}
+
+	/*
+	 * Floors whose heap storage would take more than this fraction of the
+	 * largest heap allowed are paged to a file.
+	 */
+	private static final int HEAP_FRACTION = 8;
+
+	/* Width and height of the floor, in rooms. */
+	private final int width;
+	private final int height;
+	/* Total number of rooms. */
+	private final int size;
+
+	/**
+	 * Creates storage for a floor of the given size.
+	 *
+	 * @param width width of the floor, in rooms.
+	 * @param height height of the floor, in rooms.
+	 */
+	RoomStore(int width, int height) {
+		if (width < 1 || height < 1)
+			throw new IllegalArgumentException("Floors need at least one room.");
+		if ((long) width * height > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Floor is too large to store.");
+		this.width = width;
+		this.height = height;
+		size = width * height;
+	}
+
+	/**
+	 * Creates storage for a floor of the given size, with every flag clear.
+	 * The floor is kept on the heap unless it would take more than an eighth
+	 * of the largest heap the virtual machine allows.
+	 *
+	 * @param width width of the floor, in rooms.
+	 * @param height height of the floor, in rooms.
+	 * @return the new storage.
+	 */
+	static RoomStore create(int width, int height) {
+		if (isPaged((long) width * height))
+			return new MappedRoomStore(width, height);
+		return new HeapRoomStore(width, height);
+	}
+
+	/* Returns true if a floor with the given number of rooms is paged. */
+	private static boolean isPaged(long rooms) {
+		return estimateHeapStore(rooms) > Runtime.getRuntime().maxMemory()
+				/ HEAP_FRACTION;
+	}
+
+	/* Heap memory used by a floor with the given number of rooms kept there. */
+	private static long estimateHeapStore(long rooms) {
+		return rooms * Integer.BYTES + rooms * Flag.values().length
+				/ Byte.SIZE;
+	}
+
+	/**
+	 * Estimates the heap memory used by storage created for a floor of the
+	 * given size. Floors paged to a file use little heap.
+	 *
+	 * @param width width of the floor, in rooms.
+	 * @param height height of the floor, in rooms.
+	 * @return the estimated heap memory, in bytes.
+	 */
+	static long estimateHeap(int width, int height) {
+		long rooms = (long) width * height;
+		if (isPaged(rooms))
+			return MappedRoomStore.estimateHeap(rooms);
+		return estimateHeapStore(rooms);
+	}
+
+	// Flags.
+
+	/**
+	 * @param flag flag to be checked.
+	 * @param id id of the room.
+	 * @return whether the flag is set for the room.
+	 */
+	abstract boolean get(Flag flag, int id);
+
+	/**
+	 * Sets or clears a flag for a room. Rooms in different 64 room words may
+	 * be written from different threads at once.
+	 *
+	 * @param flag flag to be changed.
+	 * @param id id of the room.
+	 * @param value true to set the flag, or false to clear it.
+	 */
+	abstract void set(Flag flag, int id, boolean value);
+
+	/**
+	 * Sets or clears a flag for every room at once.
+	 *
+	 * @param flag flag to be changed.
+	 * @param value true to set the flag, or false to clear it.
+	 */
+	abstract void fill(Flag flag, boolean value);
+
+	/**
+	 * Finds the first room, at or after the given id, with the flag set.
+	 *
+	 * @param flag flag to be checked.
+	 * @param from id to start searching from.
+	 * @return the id of the room found, or -1 if there is none.
+	 */
+	abstract int nextSet(Flag flag, int from);
+
+	/**
+	 * Finds the first room, at or after the given id, with the flag clear.
+	 *
+	 * @param flag flag to be checked.
+	 * @param from id to start searching from.
+	 * @return the id of the room found, or -1 if there is none.
+	 */
+	abstract int nextClear(Flag flag, int from);
+
+	/**
+	 * @param flag flag to be counted.
+	 * @return the number of rooms with the flag set.
+	 */
+	abstract int count(Flag flag);
+
+	// Enemy counts.
+
+	/**
+	 * @param id id of the room.
+	 * @return the number of living enemies in the room.
+	 */
+	abstract int getEnemyCount(int id);
+
+	/**
+	 * @param id id of the room.
+	 * @param count the number of living enemies in the room.
+	 */
+	abstract void setEnemyCount(int id, int count);
+
+	// Layout.
+
+	/**
+	 * Releases anything held outside the heap. The store must not be used
+	 * afterwards.
+	 */
+	void close() {
+	}
+
+	/**
+	 * @return the width of the floor, in rooms.
+	 */
+	final int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return the height of the floor, in rooms.
+	 */
+	final int getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return the total number of rooms.
+	 */
+	final int size() {
+		return size;
+	}
+
+}
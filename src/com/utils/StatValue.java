@@ -0,0 +1,679 @@
+package com.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Locale;
+
+/**
+ * An immutable, arbitrarily large integer used for all health, mana, damage and
+ * experience values in the game. Values are held in a primitive long for as
+ * long as they fit, and are only promoted to a BigInteger once an operation
+ * overflows. Results that fall back inside the long range are demoted again.
+ *
+ * Small values are cached, so the arithmetic of early game combat does not
+ * allocate, while the late game still works with unbounded numbers.
+ *
+ * Values with more decimal digits than the configured precision are no longer
+ * held exactly, but as a double mantissa and a base ten exponent. Arithmetic on
+ * these huge values takes constant time, no matter how large they get. This
+ * can be disabled by setting the precision to UNLIMITED_PRECISION.
+ *
+ * @see #setPrecision(int)
+ *
+ * @author Christopher
+ *
+ */
+public final class StatValue extends Number implements Comparable<StatValue> {
+
+	private static final long serialVersionUID = -3243410920366011742L;
+
+	/**
+	 * Precision at which values will never be approximated.
+	 */
+	public static final int UNLIMITED_PRECISION = Integer.MAX_VALUE;
+	/**
+	 * Lowest precision allowed, covering every value of a long.
+	 */
+	public static final int MIN_PRECISION = 19;
+	/**
+	 * Default number of decimal digits held exactly.
+	 */
+	public static final int DEFAULT_PRECISION = 100;
+
+	/* Number of decimal places shown in the mantissa of huge values. */
+	private static final int DISPLAY_DECIMALS = 4;
+
+	/* Smallest and largest (exclusive) values held in the cache. */
+	private static final int CACHE_LOW = -128;
+	private static final int CACHE_HIGH = 1024;
+	/* Cache of commonly used small values. */
+	private static final StatValue[] CACHE = new StatValue[CACHE_HIGH
+			- CACHE_LOW];
+
+	/* Largest magnitude a double can hold without losing integer precision. */
+	private static final long EXACT_DOUBLE_LIMIT = 1L << 52;
+	/* Mantissas further apart than this many powers of ten do not interact. */
+	private static final int MANTISSA_DIGITS = 17;
+	/* log10(2), used to estimate the number of digits in a BigInteger. */
+	private static final double LOG10_2 = Math.log10(2);
+
+	/* Number of decimal digits values may have before being approximated. */
+	private static volatile int precision = DEFAULT_PRECISION;
+
+	static {
+		for (int i = 0; i < CACHE.length; i++)
+			CACHE[i] = new StatValue(i + CACHE_LOW);
+	}
+
+	/** The value zero. */
+	public static final StatValue ZERO = valueOf(0);
+	/** The value one. */
+	public static final StatValue ONE = valueOf(1);
+	/** The value ten. */
+	public static final StatValue TEN = valueOf(10);
+
+	/* The value, if it fits in a long. Only used if big is null. */
+	private final long small;
+	/* The value, if it does not fit in a long, or else null. */
+	private final BigInteger big;
+	/* The mantissa of a huge value, in [1, 10) or (-10, -1], or else 0. */
+	private final double mantissa;
+	/* The base ten exponent of a huge value. */
+	private final long exponent;
+
+	private StatValue(long value) {
+		small = value;
+		big = null;
+		mantissa = 0;
+		exponent = 0;
+	}
+
+	/* Should only be given values outside of the long range. */
+	private StatValue(BigInteger value) {
+		small = 0;
+		big = value;
+		mantissa = 0;
+		exponent = 0;
+	}
+
+	/* Should only be given a normalised mantissa. */
+	private StatValue(double mantissa, long exponent) {
+		small = 0;
+		big = null;
+		this.mantissa = mantissa;
+		this.exponent = exponent;
+	}
+
+	// Configuration.
+
+	/**
+	 * Sets the number of decimal digits that values may reach before they are
+	 * approximated by a mantissa and exponent. Existing values are unchanged,
+	 * but the results of any further arithmetic will follow the new precision.
+	 * The precision is shared by every game in the program, and changes the
+	 * course of a game, so it is recorded in each game's journal, and should
+	 * only be changed while no game is being played.
+	 *
+	 * @param digits number of digits to hold exactly, or UNLIMITED_PRECISION.
+	 */
+	public static void setPrecision(int digits) {
+		if (digits < MIN_PRECISION)
+			throw new IllegalArgumentException(
+					"Precision must cover at least the range of a long.");
+		precision = digits;
+	}
+
+	/**
+	 * @return the number of decimal digits values may reach before they are
+	 *         approximated.
+	 */
+	public static int getPrecision() {
+		return precision;
+	}
+
+	// Factories.
+
+	/**
+	 * Returns a StatValue with the given value. Small values are cached.
+	 *
+	 * @param value value to be represented.
+	 * @return a StatValue equal to the given value.
+	 */
+	public static StatValue valueOf(long value) {
+		if (value >= CACHE_LOW && value < CACHE_HIGH)
+			return CACHE[(int) value - CACHE_LOW];
+		return new StatValue(value);
+	}
+
+	/**
+	 * Returns a StatValue with the given value. The value will be held as a
+	 * long if it fits within one, and approximated if it has more digits than
+	 * the current precision.
+	 *
+	 * @param value value to be represented.
+	 * @return a StatValue equal to the given value.
+	 */
+	public static StatValue valueOf(BigInteger value) {
+		if (value.bitLength() < 64)
+			return valueOf(value.longValue());
+		// Only estimate the digits if the value could possibly be too long.
+		if (value.bitLength() * LOG10_2 >= precision) {
+			StatValue huge = hugeOf(value);
+			if (huge.exponent >= precision)
+				return huge;
+		}
+		return new StatValue(value);
+	}
+
+	/**
+	 * Returns a StatValue approximately equal to mantissa * 10^exponent.
+	 *
+	 * @param mantissa the significant digits of the value.
+	 * @param exponent power of ten to multiply the mantissa by.
+	 * @return a StatValue approximately equal to the given value.
+	 */
+	public static StatValue valueOf(double mantissa, long exponent) {
+		if (mantissa == 0 || Double.isNaN(mantissa))
+			return ZERO;
+		if (Double.isInfinite(mantissa))
+			throw new ArithmeticException("Infinite mantissa.");
+		// Normalise the mantissa into [1, 10).
+		int shift = (int) Math.floor(Math.log10(Math.abs(mantissa)));
+		mantissa /= Math.pow(10, shift);
+		exponent += shift;
+		// Correct any rounding in the logarithm.
+		if (Math.abs(mantissa) >= 10) {
+			mantissa /= 10;
+			exponent++;
+		} else if (Math.abs(mantissa) < 1) {
+			mantissa *= 10;
+			exponent--;
+		}
+		if (exponent >= precision)
+			return new StatValue(mantissa, exponent);
+		// Small enough to be held exactly again.
+		if (exponent < 0)
+			return ZERO;
+		if (exponent < 15)
+			return valueOf((long) (mantissa * Math.pow(10, exponent)));
+		return valueOf(BigDecimal.valueOf(mantissa).scaleByPowerOfTen(
+				expansionScale(exponent)).toBigInteger());
+	}
+
+	/*
+	 * Returns an exponent as the scale of a BigDecimal, for expanding a value
+	 * in full, failing if it is too large to expand.
+	 */
+	private static int expansionScale(long exponent) {
+		if (exponent > Integer.MAX_VALUE)
+			throw new ArithmeticException("10^" + exponent
+					+ " is too large to expand in full.");
+		return (int) exponent;
+	}
+
+	/* Converts an exact value to mantissa and exponent form. */
+	private static StatValue hugeOf(BigInteger value) {
+		int shift = Math.max(0, value.bitLength() - 62);
+		double top = value.shiftRight(shift).doubleValue();
+		// Split log10(2^shift) into whole and fractional parts.
+		double shiftLog = shift * LOG10_2;
+		long whole = (long) Math.floor(shiftLog);
+		double mantissa = top * Math.pow(10, shiftLog - whole);
+		int topShift = (int) Math.floor(Math.log10(Math.abs(mantissa)));
+		mantissa /= Math.pow(10, topShift);
+		if (Math.abs(mantissa) >= 10) {
+			mantissa /= 10;
+			topShift++;
+		}
+		return new StatValue(mantissa, whole + topShift);
+	}
+
+	// Arithmetic.
+
+	/**
+	 * @param other value to be added.
+	 * @return this + other.
+	 */
+	public StatValue add(StatValue other) {
+		if (isHuge() || other.isHuge())
+			return hugeAdd(this, other);
+		if (big == null && other.big == null) {
+			long result = small + other.small;
+			// Overflow only occurs if both operands differ in sign from result.
+			if (((small ^ result) & (other.small ^ result)) >= 0)
+				return valueOf(result);
+		}
+		return valueOf(toBigInteger().add(other.toBigInteger()));
+	}
+
+	/**
+	 * @param other value to be subtracted.
+	 * @return this - other.
+	 */
+	public StatValue subtract(StatValue other) {
+		if (isHuge() || other.isHuge())
+			return hugeAdd(this, other.negate());
+		if (big == null && other.big == null) {
+			long result = small - other.small;
+			// Overflow only occurs if the operands differ in sign, and the
+			// result differs in sign from this.
+			if (((small ^ other.small) & (small ^ result)) >= 0)
+				return valueOf(result);
+		}
+		return valueOf(toBigInteger().subtract(other.toBigInteger()));
+	}
+
+	/* Adds two values, at least one of which is huge. */
+	private static StatValue hugeAdd(StatValue a, StatValue b) {
+		if (a.signum() == 0)
+			return b;
+		if (b.signum() == 0)
+			return a;
+		long difference = a.getExponent() - b.getExponent();
+		// The smaller value is lost entirely in the larger one's mantissa.
+		if (difference > MANTISSA_DIGITS)
+			return a;
+		if (difference < -MANTISSA_DIGITS)
+			return b;
+		if (difference >= 0)
+			return valueOf(a.getMantissa() + b.getMantissa()
+					/ Math.pow(10, difference), a.getExponent());
+		return valueOf(b.getMantissa() + a.getMantissa()
+				/ Math.pow(10, -difference), b.getExponent());
+	}
+
+	/**
+	 * @return -this.
+	 */
+	public StatValue negate() {
+		if (isHuge())
+			return new StatValue(-mantissa, exponent);
+		if (big == null && small != Long.MIN_VALUE)
+			return valueOf(-small);
+		return valueOf(toBigInteger().negate());
+	}
+
+	/**
+	 * @param other value to be multiplied by.
+	 * @return this * other.
+	 */
+	public StatValue multiply(StatValue other) {
+		if (isHuge() || other.isHuge())
+			return valueOf(getMantissa() * other.getMantissa(), getExponent()
+					+ other.getExponent());
+		if (other.big == null)
+			return multiply(other.small);
+		return valueOf(toBigInteger().multiply(other.big));
+	}
+
+	/**
+	 * @param factor value to be multiplied by.
+	 * @return this * factor.
+	 */
+	public StatValue multiply(long factor) {
+		if (isHuge())
+			return valueOf(mantissa * factor, exponent);
+		if (big == null) {
+			long result = small * factor;
+			// Products of two int-sized values can never overflow.
+			if ((Math.abs(small) | Math.abs(factor)) >>> 31 == 0)
+				return valueOf(result);
+			// Otherwise, check the multiplication can be reversed.
+			if (factor != 0 && result / factor == small
+					&& !(small == Long.MIN_VALUE && factor == -1))
+				return valueOf(result);
+			if (factor == 0)
+				return ZERO;
+		}
+		return valueOf(toBigInteger().multiply(BigInteger.valueOf(factor)));
+	}
+
+	/**
+	 * Multiplies this value by a decimal factor, discarding any fractional part
+	 * of the result (i.e. rounding towards zero).
+	 *
+	 * @param factor value to be multiplied by.
+	 * @return this * factor, rounded towards zero.
+	 */
+	public StatValue multiply(double factor) {
+		if (isHuge())
+			return valueOf(mantissa * factor, exponent);
+		if (big == null && Math.abs(small) < EXACT_DOUBLE_LIMIT) {
+			double result = small * factor;
+			if (Math.abs(result) < EXACT_DOUBLE_LIMIT)
+				return valueOf((long) result);
+		}
+		return valueOf(new BigDecimal(toBigInteger()).multiply(
+				BigDecimal.valueOf(factor)).toBigInteger());
+	}
+
+	/**
+	 * Multiplies this value by a decimal factor, rounding the result to the
+	 * nearest integer, with halves rounded up.
+	 *
+	 * @param factor value to be multiplied by.
+	 * @return this * factor, rounded to the nearest integer.
+	 */
+	public StatValue multiplyRounded(double factor) {
+		if (isHuge())
+			return valueOf(mantissa * factor, exponent);
+		if (big == null && Math.abs(small) < EXACT_DOUBLE_LIMIT) {
+			double result = small * factor;
+			if (Math.abs(result) < EXACT_DOUBLE_LIMIT)
+				return valueOf((long) Math.floor(result + 0.5));
+		}
+		BigDecimal result = new BigDecimal(toBigInteger()).multiply(
+				BigDecimal.valueOf(factor)).add(BigDecimal.valueOf(0.5));
+		return valueOf(result.toBigInteger());
+	}
+
+	/**
+	 * @param divisor value to divide by. Must not be zero.
+	 * @return this / divisor, rounded towards zero.
+	 */
+	public StatValue divide(long divisor) {
+		if (divisor == 0)
+			throw new ArithmeticException("Division by zero.");
+		if (isHuge())
+			return valueOf(mantissa / divisor, exponent);
+		if (big == null && !(small == Long.MIN_VALUE && divisor == -1))
+			return valueOf(small / divisor);
+		return valueOf(toBigInteger().divide(BigInteger.valueOf(divisor)));
+	}
+
+	/**
+	 * @param divisor value to divide by. Must not be zero.
+	 * @return this / divisor, rounded towards zero.
+	 */
+	public StatValue divide(StatValue divisor) {
+		if (divisor.signum() == 0)
+			throw new ArithmeticException("Division by zero.");
+		if (isHuge() || divisor.isHuge())
+			return valueOf(getMantissa() / divisor.getMantissa(),
+					getExponent() - divisor.getExponent());
+		if (divisor.big == null)
+			return divide(divisor.small);
+		return valueOf(toBigInteger().divide(divisor.big));
+	}
+
+	/**
+	 * Multiplies this value by a power of ten, which need not be a whole
+	 * number. This allows values to be scaled by factors too large to be held
+	 * in a double. Any fractional part of the result is discarded.
+	 *
+	 * @param power power of ten to multiply by.
+	 * @return this * 10^power, rounded towards zero.
+	 */
+	public StatValue multiplyByPowerOfTen(double power) {
+		long whole = (long) Math.floor(power);
+		double fraction = Math.pow(10, power - whole);
+		if (isHuge() || getExponent() + whole >= precision)
+			return valueOf(getMantissa() * fraction, getExponent() + whole);
+		// Keep all of the digits of exact values.
+		return valueOf(new BigDecimal(toBigInteger())
+				.multiply(BigDecimal.valueOf(fraction))
+				.scaleByPowerOfTen((int) whole).toBigInteger());
+	}
+
+	/**
+	 * @param other value to compare against.
+	 * @return the smaller of this and other.
+	 */
+	public StatValue min(StatValue other) {
+		return compareTo(other) <= 0 ? this : other;
+	}
+
+	/**
+	 * @param other value to compare against.
+	 * @return the larger of this and other.
+	 */
+	public StatValue max(StatValue other) {
+		return compareTo(other) >= 0 ? this : other;
+	}
+
+	/**
+	 * Returns the ratio of this value to another as a double. Intended for
+	 * display purposes, such as filling a progress bar.
+	 *
+	 * @param other value to divide by.
+	 * @return this / other, as a double.
+	 */
+	public double ratio(StatValue other) {
+		if (isHuge() || other.isHuge())
+			return getMantissa() / other.getMantissa()
+					* Math.pow(10, getExponent() - other.getExponent());
+		if (big == null && other.big == null)
+			return (double) small / other.small;
+		// Shift both values down so that the quotient fits a double.
+		int shift = Math.max(0, Math.min(bitLength(), other.bitLength()) - 62);
+		return toBigInteger().shiftRight(shift).doubleValue()
+				/ other.toBigInteger().shiftRight(shift).doubleValue();
+	}
+
+	// Comparison.
+
+	/**
+	 * @return -1, 0 or 1 as this value is negative, zero or positive.
+	 */
+	public int signum() {
+		if (isHuge())
+			return (int) Math.signum(mantissa);
+		if (big == null)
+			return Long.signum(small);
+		return big.signum();
+	}
+
+	@Override
+	public int compareTo(StatValue other) {
+		if (isHuge() || other.isHuge())
+			return hugeCompare(other);
+		if (big == null && other.big == null)
+			return Long.compare(small, other.small);
+		// Any big value lies outside the range of any long.
+		if (big == null)
+			return -other.big.signum();
+		if (other.big == null)
+			return big.signum();
+		return big.compareTo(other.big);
+	}
+
+	/* Compares two values, at least one of which is huge. */
+	private int hugeCompare(StatValue other) {
+		int sign = signum();
+		if (sign != other.signum())
+			return Integer.compare(sign, other.signum());
+		if (sign == 0)
+			return 0;
+		// Larger exponents mean larger magnitudes.
+		int magnitude = Long.compare(getExponent(), other.getExponent());
+		if (magnitude == 0)
+			magnitude = Double.compare(Math.abs(getMantissa()),
+					Math.abs(other.getMantissa()));
+		return sign * magnitude;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof StatValue))
+			return false;
+		StatValue value = (StatValue) other;
+		if (isHuge())
+			return mantissa == value.mantissa && exponent == value.exponent;
+		if (big == null)
+			return !value.isHuge() && value.big == null
+					&& small == value.small;
+		return big.equals(value.big);
+	}
+
+	@Override
+	public int hashCode() {
+		if (isHuge())
+			return 31 * Double.hashCode(mantissa) + Long.hashCode(exponent);
+		if (big == null)
+			return Long.hashCode(small);
+		return big.hashCode();
+	}
+
+	// Conversion.
+
+	/**
+	 * @return true if this value is held in a primitive long.
+	 */
+	public boolean fitsInLong() {
+		return big == null && !isHuge();
+	}
+
+	/**
+	 * @return true if this value is approximated by a mantissa and exponent,
+	 *         rather than being held exactly.
+	 */
+	public boolean isHuge() {
+		return mantissa != 0;
+	}
+
+	/**
+	 * @return the base ten exponent of this value, i.e. the number of decimal
+	 *         digits minus one. Zero has an exponent of zero.
+	 */
+	public long getExponent() {
+		if (isHuge())
+			return exponent;
+		if (big == null) {
+			long magnitude = Math.abs(small);
+			// Long.MIN_VALUE has no positive counterpart.
+			if (magnitude < 0)
+				return 18;
+			long exponent = 0;
+			while (magnitude >= 10) {
+				magnitude /= 10;
+				exponent++;
+			}
+			return exponent;
+		}
+		return hugeOf(big).exponent;
+	}
+
+	/**
+	 * @return the significant digits of this value, scaled to lie between 1
+	 *         and 10, or 0 if this value is zero.
+	 */
+	public double getMantissa() {
+		if (isHuge())
+			return mantissa;
+		if (big == null)
+			return small / Math.pow(10, getExponent());
+		return hugeOf(big).mantissa;
+	}
+
+	/**
+	 * @return the base ten logarithm of the magnitude of this value, or
+	 *         negative infinity if this value is zero.
+	 */
+	public double log10() {
+		if (fitsInLong())
+			return Math.log10(Math.abs((double) small));
+		return getExponent() + Math.log10(Math.abs(getMantissa()));
+	}
+
+	/*
+	 * Number of bits in the minimal two's complement representation, excluding
+	 * the sign bit.
+	 */
+	private int bitLength() {
+		if (big == null)
+			return 64 - Long.numberOfLeadingZeros(small < 0 ? ~small : small);
+		return big.bitLength();
+	}
+
+	/**
+	 * Converts this value to a BigInteger. Huge values will be expanded to
+	 * their full length, which may be extremely expensive.
+	 *
+	 * @return this value as a BigInteger.
+	 * @throws ArithmeticException if the value has more digits than a
+	 *             BigInteger can be built with.
+	 */
+	public BigInteger toBigInteger() {
+		if (isHuge())
+			return BigDecimal.valueOf(mantissa)
+					.scaleByPowerOfTen(expansionScale(exponent))
+					.toBigInteger();
+		if (big == null)
+			return BigInteger.valueOf(small);
+		return big;
+	}
+
+	/**
+	 * @return this value as a long. Values outside of the long range are
+	 *         saturated to Long.MIN_VALUE or Long.MAX_VALUE.
+	 */
+	@Override
+	public long longValue() {
+		if (fitsInLong())
+			return small;
+		return signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+	}
+
+	@Override
+	public int intValue() {
+		return (int) Math.max(Integer.MIN_VALUE,
+				Math.min(Integer.MAX_VALUE, longValue()));
+	}
+
+	@Override
+	public float floatValue() {
+		return (float) doubleValue();
+	}
+
+	@Override
+	public double doubleValue() {
+		if (isHuge())
+			return exponent > 400 ? mantissa * Double.POSITIVE_INFINITY
+					: mantissa * Math.pow(10, exponent);
+		if (big == null)
+			return small;
+		return big.doubleValue();
+	}
+
+	/**
+	 * @return the decimal representation of this value. Huge values are shown
+	 *         in scientific notation.
+	 */
+	@Override
+	public String toString() {
+		if (isHuge())
+			return toScientificString();
+		if (big == null)
+			return Long.toString(small);
+		return big.toString();
+	}
+
+	/**
+	 * Formats this value for display. If the full decimal representation would
+	 * have more than the given number of digits, the value is displayed in
+	 * scientific notation instead.
+	 *
+	 * @param maxDigits maximum number of digits to display in full.
+	 * @return the formatted value.
+	 */
+	public String format(int maxDigits) {
+		if (isHuge() || getExponent() >= maxDigits)
+			return toScientificString();
+		return toString();
+	}
+
+	/* Displays this value as a mantissa and exponent, e.g. 1.2345e678. */
+	private String toScientificString() {
+		double scale = Math.pow(10, DISPLAY_DECIMALS);
+		double rounded = Math.round(getMantissa() * scale) / scale;
+		long exponent = getExponent();
+		// Rounding may have carried the mantissa up to ten.
+		if (Math.abs(rounded) >= 10) {
+			rounded /= 10;
+			exponent++;
+		}
+		return String.format(Locale.ROOT, "%." + DISPLAY_DECIMALS + "fe%d",
+				rounded, exponent);
+	}
+
+}
@@ -32,4 +32,36 @@ public final class StringUtils {
 		return outputStr;
 	}
 
+	/**
+	 * Converts a singular English noun to its plural, following the regular
+	 * rules, e.g. goblin to goblins, witch to witches and harpy to harpies.
+	 *
+	 * @param noun singular noun to be converted.
+	 * @return the plural of the noun.
+	 */
+	public static String plural(String noun) {
+		String lower = noun.toLowerCase();
+		if (lower.endsWith("s") || lower.endsWith("x") || lower.endsWith("z")
+				|| lower.endsWith("ch") || lower.endsWith("sh"))
+			return noun + "es";
+		if (lower.length() > 1 && lower.endsWith("y")
+				&& "aeiou".indexOf(lower.charAt(lower.length() - 2)) < 0)
+			return noun.substring(0, noun.length() - 1) + "ies";
+		return noun + "s";
+	}
+
+	/**
+	 * Puts the indefinite article before a noun phrase, e.g. a goblin, an orc
+	 * or a horde of orcs. The article is chosen by the first letter alone.
+	 *
+	 * @param noun noun phrase to be preceded by an article.
+	 * @return the noun phrase with its article.
+	 */
+	public static String withArticle(String noun) {
+		if (!noun.isEmpty()
+				&& "aeiou".indexOf(Character.toLowerCase(noun.charAt(0))) >= 0)
+			return "an " + noun;
+		return "a " + noun;
+	}
+
 }
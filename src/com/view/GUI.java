@@ -4,14 +4,18 @@ import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
+import java.util.SplittableRandom;
 
 import javax.swing.JFrame;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
 
 import com.controller.GameController;
 import com.model.entity.GameCharacter;
 import com.model.entity.pc.Player;
+import com.model.event.GameEvent;
+import com.model.event.RoomShown;
 import com.model.layout.FloorLayout;
 import com.view.images.BackgroundImage;
 import com.view.images.DisplayableImage;
@@ -73,6 +77,9 @@ public class GUI implements Runnable {
 	// The lower right panel, showing player stats and attributes.
 	private StatsPanel statsPanel;
 
+	// Messages waiting to be shown, or null if none are waiting.
+	private StringBuilder pendingMessages;
+
 	/**
 	 * Constructs and initialises the main game window. This functionality may
 	 * be changed at a later date.
@@ -112,7 +119,7 @@ public class GUI implements Runnable {
 		mainPanel = new MainPanel();
 		consolePanel = new ConsolePanel();
 		buttonPanel = new ButtonPanel(controller);
-		mapPanel = new MapPanel();
+		mapPanel = new MapPanel(controller);
 		equipmentPanel = new EquipmentPanel();
 		inventoryPanel = new InventoryPanel();
 		statsPanel = new StatsPanel();
@@ -170,17 +177,59 @@ public class GUI implements Runnable {
 	 * Displays the requested message on a new line in the console panel. A
 	 * newline character is automatically added to the end of the line.
 	 *
+	 * Messages are shown on the event dispatch thread, and a burst of
+	 * messages, such as a round of combat, is shown in a single update.
+	 *
 	 * @param message message to be displayed
 	 */
-	public void displayMessage(String message) {
-		consolePanel.displayMessage(message);
+	public synchronized void displayMessage(String message) {
+		if (pendingMessages != null) {
+			pendingMessages.append('\n').append(message);
+			return;
+		}
+		pendingMessages = new StringBuilder(message);
+		SwingUtilities.invokeLater(this::showPendingMessages);
+	}
+
+	/**
+	 * Shows a game event. Rooms being shown change the background, and the
+	 * text of any event is displayed in the console panel.
+	 *
+	 * @param event event to be displayed.
+	 */
+	public void displayEvent(GameEvent event) {
+		if (event instanceof RoomShown) {
+			// New background types go here.
+			setBackgroundImage(BackgroundImage.ROOM);
+			clearForeground();
+		}
+		String message = event.getMessage();
+		if (message != null)
+			displayMessage(message);
+	}
+
+	/*
+	 * Shows the messages waiting to be shown, and updates the other panels to
+	 * match.
+	 */
+	private void showPendingMessages() {
+		String messages;
+		synchronized (this) {
+			if (pendingMessages == null)
+				return;
+			messages = pendingMessages.toString();
+			pendingMessages = null;
+		}
+		consolePanel.displayMessage(messages);
 		update();
 	}
 
 	/**
-	 * Clears the text from the text area in the console panel.
+	 * Clears the text from the text area in the console panel, along with any
+	 * messages waiting to be shown.
 	 */
-	public void clear() {
+	public synchronized void clear() {
+		pendingMessages = null;
 		consolePanel.clear();
 	}
 
@@ -255,6 +304,16 @@ public class GUI implements Runnable {
 		return mainPanel.displayImages(image);
 	}
 
+	/**
+	 * Sets the generator used to choose between alternative images, so that
+	 * cosmetic choices are drawn from the game's own random numbers.
+	 *
+	 * @param random generator to be used.
+	 */
+	public void setRandom(SplittableRandom random) {
+		mainPanel.setRandom(random);
+	}
+
 	// Global functions
 
 	/**
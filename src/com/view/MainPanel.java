@@ -5,6 +5,7 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 import javax.swing.JPanel;
 
@@ -30,6 +31,8 @@ public class MainPanel extends JPanel {
 	private GameCharacter[] characters;
 	/* Images to be displayed */
 	private BufferedImage[] images;
+	/* Generator used to choose between alternative images. */
+	private SplittableRandom random;
 
 	// Core methods.
 
@@ -39,6 +42,7 @@ public class MainPanel extends JPanel {
 	public MainPanel() {
 		characters = new GameCharacter[5];
 		images = new BufferedImage[5];
+		random = new SplittableRandom();
 	}
 
 	@Override
@@ -106,7 +110,7 @@ public class MainPanel extends JPanel {
 		for (int i = 0; i < 5 && placedImages < image.length; i++)
 			if (images[i] == null)
 				try {
-					images[i] = image[placedImages++].getImage();
+					images[i] = image[placedImages++].getImage(random);
 				} catch (IOException e) {
 					// Image is skipped.
 					placedImages++;
@@ -116,6 +120,15 @@ public class MainPanel extends JPanel {
 		return (placedImages == image.length);
 	}
 
+	/**
+	 * Sets the generator used to choose between alternative images.
+	 *
+	 * @param random generator to be used.
+	 */
+	public void setRandom(SplittableRandom random) {
+		this.random = random;
+	}
+
 	// Background related.
 
 	/**
@@ -126,7 +139,7 @@ public class MainPanel extends JPanel {
 	 */
 	public void setBackgroundImage(BackgroundImage image) {
 		try {
-			this.background = image.getImage();
+			this.background = image.getImage(random);
 			repaint();
 		} catch (IOException e) {
 			// Don't change background.
@@ -6,6 +6,8 @@ import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.geom.Arc2D;
 import java.awt.geom.Line2D;
 import java.awt.geom.Rectangle2D;
@@ -13,9 +15,9 @@ import java.awt.image.BufferedImage;
 
 import javax.swing.JPanel;
 
+import com.controller.GameController;
 import com.model.layout.Direction;
 import com.model.layout.FloorLayout;
-import com.model.layout.Room;
 
 /**
  * The map panel, which contains a map demonstrating the player's current
@@ -29,15 +31,21 @@ public class MapPanel extends JPanel {
 
 	private static final long serialVersionUID = 7263337683976203060L;
 
+	/* Fill colours of rooms with enemies, and of searched rooms. */
+	private static final Color ENEMY_COLOUR = new Color(255, 100, 100);
+	private static final Color SEARCHED_COLOUR = new Color(200, 255, 150);
+
 	/* Floor layout to be displayed. */
 	private FloorLayout layout;
+	/* Controller told when a room is clicked on. */
+	private GameController controller;
 
 	/**
 	 * Constructs a map panel that displays the placeholder image until a floor
 	 * layout to be displayed is specified.
 	 */
 	public MapPanel() {
-		this(null);
+		this((FloorLayout) null);
 	}
 
 	/**
@@ -51,6 +59,40 @@ public class MapPanel extends JPanel {
 		setBackground(Color.WHITE);
 	}
 
+	/**
+	 * Constructs a map panel that displays the placeholder image until a floor
+	 * layout to be displayed is specified. Clicking on a room asks the
+	 * controller to travel to it.
+	 *
+	 * @param controller controller to be told about clicked rooms.
+	 */
+	public MapPanel(GameController controller) {
+		this((FloorLayout) null);
+		this.controller = controller;
+		addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				travelTo(e.getX(), e.getY());
+			}
+		});
+	}
+
+	/* Asks the controller to travel to the room at the given point. */
+	private void travelTo(int px, int py) {
+		if (layout == null || controller == null)
+			return;
+		// Rooms are laid out as in paintComponent, with a border of one room.
+		int rooms = layout.getFloorNumber() + 3;
+		int rw = getWidth() / (rooms + 2);
+		int rh = getHeight() / (rooms + 2);
+		if (rw == 0 || rh == 0)
+			return;
+		int x = px / rw - 1;
+		int y = rooms - py / rh;
+		if (layout.roomDiscovered(x, y))
+			controller.travelTo(x, y);
+	}
+
 	@Override
 	public void paintComponent(Graphics g) {
 		super.paintComponent(g);
@@ -86,76 +128,98 @@ public class MapPanel extends JPanel {
 					BufferedImage.TYPE_INT_ARGB);
 			Graphics2D fgg2 = fg.createGraphics();
 
-			for (int i = 0; i < rooms; i++)
-				for (int j = 0; j < rooms; j++) {
-					Dimension roomLoc = new Dimension(i, rooms - j - 1);
-					Room room = layout.getRoom(roomLoc);
-					if (room != null && room.hasBeenDiscovered()) {
-						// Prepare some values.
-						double left = rw * (i + 1);
-						double top = rh * (j + 1);
-
-						if (room.hasBeenEntered()) {
-							// Draw the outline of the room.
-							g2.setColor(Color.BLACK);
-							g2.draw(new Rectangle2D.Double(left, top, rw, rh));
-						}
-						// Determine fill colour based on room characteristics.
-
-						if (room.hasBeenEntered())
-							if (room.getEnemies().size() != 0)
-								g2.setColor(new Color(255, 100, 100));
-							else if (room.hasBeenSearched())
-								g2.setColor(new Color(200, 255, 150));
-							else
-								g2.setColor(Color.WHITE);
-						else
-							g2.setColor(Color.LIGHT_GRAY);
-
-						// Fill the outline in.
-						g2.fill(new Rectangle2D.Double(left + 1, top + 1,
-								rw - 1, rh - 1));
-
-						// Fix the doors
-						if (layout.roomEntered(Direction.WEST, roomLoc))
-							// Set colour based on whether door is locked.
-							if (layout.doorLocked(Direction.WEST, roomLoc)) {
-								fgg2.setColor(Color.BLACK);
-								fgg2.fill(new Rectangle2D.Double(left - 1, top
-										+ rh * 0.35, 3, rh * 0.3));
-							} else {
-								fgg2.setColor(Color.WHITE);
-								fgg2.fill(new Rectangle2D.Double(left, top + rh
-										* 0.35, 1, rh * 0.3));
-							}
-
-						if (layout.roomEntered(Direction.SOUTH, roomLoc))
-							if (layout.doorLocked(Direction.WEST, roomLoc)) {
-								fgg2.setColor(Color.BLACK);
-								fgg2.fill(new Rectangle2D.Double(left + rw
-										* 0.35, top + rh, rw * 0.3, 3));
-							} else {
-								fgg2.setColor(Color.WHITE);
-								fgg2.fill(new Rectangle2D.Double(left + rw
-										* 0.35, top + rh, rw * 0.3, 1));
-							}
-
-						// Add various icons.
-
-						// X marks the player.
-						if (layout.getPlayerLocation().width == i
-								&& layout.getPlayerLocation().height == rooms
-								- j - 1) {
-							fgg2.setColor(Color.BLACK);
-							fgg2.setStroke(new BasicStroke(3));
-							// Draw an X.
-							fgg2.draw(new Line2D.Double(left + rw * 0.2, top
-									+ rh * 0.2, left + rw * 0.8, top + rh * 0.8));
-							fgg2.draw(new Line2D.Double(left + rw * 0.2, top
-									+ rh * 0.8, left + rw * 0.8, top + rh * 0.2));
-						}
+			// Shapes are reused for every room, rather than allocated.
+			Rectangle2D.Double rect = new Rectangle2D.Double();
+			Line2D.Double line = new Line2D.Double();
+			int playerRoom = layout.getPlayerRoom();
+			int stairsRoom = layout.getStairsRoom();
+
+			// Only visit discovered rooms, skipping the rest 64 at a time.
+			for (int id = layout.nextDiscoveredRoom(0); id >= 0; id = layout
+					.nextDiscoveredRoom(id + 1)) {
+				// Prepare some values.
+				double left = rw * (layout.getRoomX(id) + 1);
+				double top = rh * (rooms - layout.getRoomY(id));
+				boolean entered = layout.roomEntered(id);
+
+				if (entered) {
+					// Draw the outline of the room.
+					g2.setColor(Color.BLACK);
+					rect.setRect(left, top, rw, rh);
+					g2.draw(rect);
+				}
+				// Determine fill colour based on room characteristics.
+
+				if (entered)
+					if (layout.getEnemyCount(id) != 0)
+						g2.setColor(ENEMY_COLOUR);
+					else if (layout.roomSearched(id))
+						g2.setColor(SEARCHED_COLOUR);
+					else
+						g2.setColor(Color.WHITE);
+				else
+					g2.setColor(Color.LIGHT_GRAY);
+
+				// Fill the outline in.
+				rect.setRect(left + 1, top + 1, rw - 1, rh - 1);
+				g2.fill(rect);
+
+				// Fix the doors
+				if (layout.roomEntered(layout
+						.getNeighbour(id, Direction.WEST))) {
+					// Set colour based on whether door is locked.
+					if (layout.doorLocked(Direction.WEST, id)) {
+						fgg2.setColor(Color.BLACK);
+						rect.setRect(left - 1, top + rh * 0.35, 3, rh * 0.3);
+					} else {
+						fgg2.setColor(Color.WHITE);
+						rect.setRect(left, top + rh * 0.35, 1, rh * 0.3);
+					}
+					fgg2.fill(rect);
+				}
+
+				if (layout.roomEntered(layout
+						.getNeighbour(id, Direction.SOUTH))) {
+					if (layout.doorLocked(Direction.SOUTH, id)) {
+						fgg2.setColor(Color.BLACK);
+						rect.setRect(left + rw * 0.35, top + rh, rw * 0.3, 3);
+					} else {
+						fgg2.setColor(Color.WHITE);
+						rect.setRect(left + rw * 0.35, top + rh, rw * 0.3, 1);
+					}
+					fgg2.fill(rect);
+				}
+
+				// Add various icons.
+
+				// X marks the player.
+				if (id == playerRoom) {
+					fgg2.setColor(Color.BLACK);
+					fgg2.setStroke(new BasicStroke(3));
+					// Draw an X.
+					line.setLine(left + rw * 0.2, top + rh * 0.2, left + rw
+							* 0.8, top + rh * 0.8);
+					fgg2.draw(line);
+					line.setLine(left + rw * 0.2, top + rh * 0.8, left + rw
+							* 0.8, top + rh * 0.2);
+					fgg2.draw(line);
+				}
+
+				// Steps mark the stairs down, once found.
+				if (entered && id == stairsRoom) {
+					fgg2.setColor(Color.DARK_GRAY);
+					fgg2.setStroke(new BasicStroke(2));
+					for (int step = 0; step < 3; step++) {
+						double x = left + rw * (0.2 + step * 0.2);
+						double y = top + rh * (0.8 - step * 0.2);
+						line.setLine(x, y, x, y - rh * 0.2);
+						fgg2.draw(line);
+						line.setLine(x, y - rh * 0.2, x + rw * 0.2, y - rh
+								* 0.2);
+						fgg2.draw(line);
 					}
 				}
+			}
 			g2.drawImage(fg, 0, 0, this);
 		}
 	}
@@ -4,9 +4,6 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics;
-import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
 
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -14,6 +11,7 @@ import javax.swing.JProgressBar;
 
 import com.model.entity.pc.Attribute;
 import com.model.entity.pc.Player;
+import com.utils.StatValue;
 
 /**
  * The attributes and stats panel, responsible for showing the player's
@@ -26,6 +24,9 @@ public class StatsPanel extends JPanel {
 
 	private static final long serialVersionUID = 2065813871632233743L;
 
+	/* Values longer than this are displayed in scientific notation. */
+	private static final int DISPLAY_DIGITS = 9;
+
 	/* The player whose stats are displayed. */
 	private Player player;
 
@@ -37,8 +38,8 @@ public class StatsPanel extends JPanel {
 	private JLabel levelLabel;
 	/* Bar showing xp until next level. */
 	private JProgressBar xpBar;
-	/* Labels to show attribute values. */
-	private Map<Attribute, JLabel> attributes;
+	/* Labels to show attribute values, indexed by Attribute ordinal. */
+	private JLabel[] attributes;
 
 	/**
 	 * Constructs a new Stats Panel, showing unknown values.
@@ -74,11 +75,11 @@ public class StatsPanel extends JPanel {
 		add(xpBar);
 
 		// Set up attribute labels.
-		attributes = new HashMap<Attribute, JLabel>();
+		attributes = new JLabel[Attribute.count()];
 		for (Attribute att : Attribute.values()) {
 			JLabel attLabel = new JLabel(" " + att.getShortening() + ": ?  ");
 			attLabel.setFont(attLabel.getFont().deriveFont((float) (16)));
-			attributes.put(att, attLabel);
+			attributes[att.ordinal()] = attLabel;
 			add(attLabel);
 		}
 	}
@@ -118,38 +119,42 @@ public class StatsPanel extends JPanel {
 		Font largeLabelFont = barFont.deriveFont((float) (fontSize * 1.4));
 		Font labelFont = barFont.deriveFont(fontSize);
 		levelLabel.setFont(largeLabelFont);
-		for (Attribute att : Attribute.values())
-			attributes.get(att).setFont(labelFont);
+		for (JLabel label : attributes)
+			label.setFont(labelFont);
 
 		if (player != null) {
 			// Update bar texts and values.
-			hpBar.setValue(new BigDecimal(player.getHP())
-			.multiply(BigDecimal.valueOf(10000))
-			.divide(new BigDecimal(player.getMaxHP()),
-					BigDecimal.ROUND_HALF_UP).intValue());
-			hpBar.setString(player.getHP() + "/" + player.getMaxHP());
-
-			manaBar.setValue(new BigDecimal(player.getMana())
-			.multiply(BigDecimal.valueOf(10000))
-			.divide(new BigDecimal(player.getMaxMana()),
-					BigDecimal.ROUND_HALF_UP).intValue());
-			manaBar.setString(player.getMana() + "/" + player.getMaxMana());
-
-			xpBar.setValue(new BigDecimal(player.getCurrentXP())
-			.multiply(BigDecimal.valueOf(10000))
-			.divide(new BigDecimal(player.getXPToNextLevel()),
-					BigDecimal.ROUND_HALF_UP).intValue());
-			xpBar.setString(player.getCurrentXP() + "/"
-					+ player.getXPToNextLevel());
+			hpBar.setValue(barValue(player.getHP(), player.getMaxHP()));
+			hpBar.setString(format(player.getHP()) + "/"
+					+ format(player.getMaxHP()));
+
+			manaBar.setValue(barValue(player.getMana(), player.getMaxMana()));
+			manaBar.setString(format(player.getMana()) + "/"
+					+ format(player.getMaxMana()));
+
+			xpBar.setValue(barValue(player.getCurrentXP(),
+					player.getXPToNextLevel()));
+			xpBar.setString(format(player.getCurrentXP()) + "/"
+					+ format(player.getXPToNextLevel()));
 
 			// Update HP label.
 			levelLabel.setText("Level: " + player.getLevel());
 			// Update attribute labels.
-			for (Attribute att : Attribute.values()) {
-				JLabel label = attributes.get(att);
-				label.setText("  " + att.getShortening() + ": "
-						+ player.getAttributeValue(att) + " ");
-			}
+			StatValue[] values = player.getAttributeValues();
+			for (int i = 0; i < values.length; i++)
+				attributes[i].setText("  "
+						+ Attribute.fromOrdinal(i).getShortening() + ": "
+						+ format(values[i]) + " ");
 		}
 	}
+
+	/* Formats a value to fit within the panel. */
+	private static String format(StatValue value) {
+		return value.format(DISPLAY_DIGITS);
+	}
+
+	/* Converts a value and its maximum to a progress bar value. */
+	private static int barValue(StatValue value, StatValue max) {
+		return (int) Math.round(value.ratio(max) * 10000);
+	}
 }
@@ -2,6 +2,7 @@ package com.view.images;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.SplittableRandom;
 
 /**
  * An enum to store specific background images. Uses lazy initialisation to
@@ -38,4 +39,17 @@ public enum BackgroundImage implements DisplayableImage {
 	public BufferedImage getImage() throws IOException {
 		return store.getImage();
 	}
+
+	/**
+	 * Selects an available image for the chosen background, using the given
+	 * generator, and displays it.
+	 *
+	 * @param random generator used to choose between alternative images.
+	 * @return a randomly chosen image for the relevant background.
+	 * @throws IOException if the image could not be read from the file.
+	 */
+	@Override
+	public BufferedImage getImage(SplittableRandom random) throws IOException {
+		return store.getImage(random);
+	}
 }
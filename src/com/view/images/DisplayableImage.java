@@ -2,6 +2,7 @@ package com.view.images;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.SplittableRandom;
 
 /**
  * An interface to signify an image as able to be accessed by a getImage()
@@ -18,4 +19,11 @@ public interface DisplayableImage {
 	 */
 	public BufferedImage getImage() throws IOException;
 
+	/**
+	 * @param random generator used to choose between alternative images.
+	 * @return the attached image.
+	 * @throws IOException if the image cannot be accessed.
+	 */
+	public BufferedImage getImage(SplittableRandom random) throws IOException;
+
 }
@@ -3,6 +3,7 @@ package com.view.images;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.SplittableRandom;
 
 import javax.imageio.ImageIO;
 
@@ -10,6 +11,8 @@ class ImageStore {
 
 	private String[] imageNames;
 	private BufferedImage[] images;
+	/* Generator used when no other is given. */
+	private SplittableRandom random;
 
 	/**
 	 * Stores a set of images, to be lazily initialised whenever one is needed.
@@ -22,6 +25,7 @@ class ImageStore {
 		for (int i = 0; i < image.length; i++)
 			imageNames[i] = image[i];
 		images = new BufferedImage[image.length];
+		random = new SplittableRandom();
 	}
 
 	/**
@@ -31,13 +35,24 @@ class ImageStore {
 	 * @throws IOException if the image could not be read from the file.
 	 */
 	public BufferedImage getImage() throws IOException {
+		return getImage(random);
+	}
+
+	/**
+	 * Selects an available image using the given generator and displays it.
+	 *
+	 * @param random generator used to choose between alternative images.
+	 * @return a randomly chosen image for the relevant background.
+	 * @throws IOException if the image could not be read from the file.
+	 */
+	public BufferedImage getImage(SplittableRandom random) throws IOException {
 		if (imageNames.length == 0)
 			throw new UnsupportedOperationException("No images stored.");
 		int imageChosen;
 		if (imageNames.length == 1)
 			imageChosen = 0;
 		else
-			imageChosen = (int) (Math.random() * imageNames.length);
+			imageChosen = random.nextInt(imageNames.length);
 		if (images[imageChosen] == null)
 			images[imageChosen] = ImageIO
 					.read(new File(imageNames[imageChosen]));